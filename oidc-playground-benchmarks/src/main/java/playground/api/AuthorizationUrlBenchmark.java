@@ -0,0 +1,66 @@
+package playground.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The authorization URL of the authorize endpoint, as it was built with the UriComponentsBuilder and URLEncoder
+ * (uriComponentsBuilder) and with the AuthorizationUrlBuilder (authorizationUrlBuilder). Run with the GC profiler to
+ * compare the allocations per URL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationUrlBenchmark implements URLSupport {
+
+    @Param({"false", "true"})
+    public boolean requestObject;
+
+    private URI endpoint;
+    private Map<String, String> parameters;
+    private AuthorizationUrlBuilder authorizationUrlBuilder;
+
+    @Setup
+    public void setup() throws Exception {
+        endpoint = new URI("https://connect.test2.surfconext.nl/oidc/authorize");
+        parameters = Payloads.form();
+        if (requestObject) {
+            parameters.put("request", Payloads.largeJwt());
+        }
+        authorizationUrlBuilder = new AuthorizationUrlBuilder(endpoint);
+    }
+
+    @Benchmark
+    public String uriComponentsBuilder() {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUri(endpoint);
+        parameters.forEach((key, value) -> {
+            if (StringUtils.hasText(value)) {
+                builder.queryParam(key, encode(value));
+            }
+        });
+        return builder.build().toUriString();
+    }
+
+    @Benchmark
+    public String authorizationUrlBuilder() {
+        return authorizationUrlBuilder.build(parameters);
+    }
+}
@@ -0,0 +1,79 @@
+package playground.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import playground.request.AuthorizationRequest;
+import playground.request.CodeChallengeRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OidcBenchmark {
+
+    private Oidc oidc;
+    private Oidc oidcWithoutDecodeCache;
+    private ObjectMapper objectMapper;
+    private byte[] authorizeJson;
+    private AuthorizationRequest authorizeBody;
+    private CodeChallengeRequest codeChallengeBody;
+    private Map<String, String> requestHeaders;
+    private String jwt;
+
+    @Setup
+    public void setup() throws Exception {
+        oidc = Payloads.oidc();
+        oidcWithoutDecodeCache = Payloads.oidc(0);
+        objectMapper = Payloads.objectMapper();
+        authorizeJson = objectMapper.writeValueAsBytes(Payloads.authorizeJson(false, "RS256"));
+        authorizeBody = Payloads.authorizeBody(false, "RS256");
+        codeChallengeBody = new CodeChallengeRequest();
+        codeChallengeBody.setCodeChallengeMethod("S256");
+        requestHeaders = Payloads.requestHeaders();
+        jwt = Payloads.largeJwt();
+    }
+
+    @Benchmark
+    public Map<String, Object> authorize() throws Exception {
+        return oidc.authorize(authorizeBody).block();
+    }
+
+    @Benchmark
+    public Map<String, Object> codeChallenge() {
+        return oidc.codeChallenge(codeChallengeBody);
+    }
+
+    @Benchmark
+    public String decodeJwtToken() throws Exception {
+        return oidc.decodeJwtToken(jwt, false, null, null, null, null);
+    }
+
+    @Benchmark
+    public String decodeJwtTokenWithoutCache() throws Exception {
+        return oidcWithoutDecodeCache.decodeJwtToken(jwt, false, null, null, null, null);
+    }
+
+    @Benchmark
+    public AuthorizationRequest bindAuthorizationRequest() throws Exception {
+        return objectMapper.readValue(authorizeJson, AuthorizationRequest.class);
+    }
+
+    @Benchmark
+    public Map<String, String> anonymizeInformation() {
+        return oidc.anonymizeInformation(requestHeaders);
+    }
+}
@@ -0,0 +1,52 @@
+package playground.api;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import playground.jwt.RequestObjectSigner;
+import playground.request.AuthorizationRequest;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private Oidc oidc;
+    private AuthorizationRequest authorizeBody;
+    private Map<String, String> form;
+
+    @Setup
+    public void setup() throws Exception {
+        oidc = Payloads.oidc();
+        authorizeBody = Payloads.authorizeBody(true, algorithm);
+        form = Payloads.form();
+    }
+
+    @Benchmark
+    public Map<String, Object> authorizeSigned() throws Exception {
+        return oidc.authorize(authorizeBody).block();
+    }
+
+    @Benchmark
+    public RequestObjectSigner.Signed signedJWT() throws Exception {
+        return oidc.signedJWT(form, "playground_client", JWSAlgorithm.parse(algorithm));
+    }
+}
@@ -0,0 +1,56 @@
+package playground.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class URLSupportBenchmark implements URLSupport {
+
+    private String claims;
+    private String encodedClaims;
+    private String jwt;
+    private String encodedJwt;
+
+    @Setup
+    public void setup() throws Exception {
+        claims = Payloads.form().get("claims");
+        encodedClaims = encode(claims);
+        jwt = Payloads.largeJwt();
+        encodedJwt = encode(jwt);
+    }
+
+    @Benchmark
+    public String encodeClaims() {
+        return encode(claims);
+    }
+
+    @Benchmark
+    public String decodeClaims() {
+        return decode(encodedClaims);
+    }
+
+    @Benchmark
+    public String encodeJwt() {
+        return encode(jwt);
+    }
+
+    @Benchmark
+    public String decodeJwt() {
+        return decode(encodedJwt);
+    }
+}
@@ -1,4 +1,4 @@
 #!/bin/bash
 rm -Rf build/*
 rm -Rf target/*
-yarn install && CI=true yarn test && yarn build
+yarn install && CI=true yarn test && yarn build && node scripts/compress.js
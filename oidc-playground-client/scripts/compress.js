@@ -0,0 +1,38 @@
+// Writes gzip and brotli variants of the text files in build/ next to the originals, the server serves them to
+// browsers that accept them. Brotli needs NodeJS 11.7 or newer and is skipped on older versions.
+const fs = require("fs");
+const path = require("path");
+const zlib = require("zlib");
+
+const root = path.join(__dirname, "..", "build");
+const compressible = /\.(js|css|html|json|svg|txt|map|ico)$/;
+const minSize = 1024;
+
+const files = dir =>
+  fs.readdirSync(dir).reduce((acc, name) => {
+    const file = path.join(dir, name);
+    return fs.statSync(file).isDirectory() ? acc.concat(files(file)) : acc.concat([file]);
+  }, []);
+
+const write = (file, compressed, original) => {
+  // a variant that is not smaller is useless
+  if (compressed.length < original.length) {
+    fs.writeFileSync(file, compressed);
+  }
+};
+
+files(root)
+  .filter(file => compressible.test(file) && fs.statSync(file).size >= minSize)
+  .forEach(file => {
+    const content = fs.readFileSync(file);
+    write(`${file}.gz`, zlib.gzipSync(content, { level: zlib.constants.Z_BEST_COMPRESSION }), content);
+    if (zlib.brotliCompressSync) {
+      write(
+        `${file}.br`,
+        zlib.brotliCompressSync(content, {
+          params: { [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY }
+        }),
+        content
+      );
+    }
+  });
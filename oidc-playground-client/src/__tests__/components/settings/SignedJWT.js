@@ -20,3 +20,9 @@ it("renders if auth_protocol is not Oauth2", () => {
   const comp = shallow(<SignedJWT {...props} moderators={{ auth_protocol: "authorization_code" }} />);
   expect(comp.isEmptyRender()).toEqual(false);
 });
+
+it("renders the algorithm select if signedJWT is checked", () => {
+  const algorithm = { value: "ES256", options: ["RS256", "ES256", "EdDSA"], onChange: () => {} };
+  const comp = shallow(<SignedJWT {...props} value={true} algorithm={algorithm} moderators={{}} />);
+  expect(comp.find("ReactSelect").length).toEqual(1);
+});
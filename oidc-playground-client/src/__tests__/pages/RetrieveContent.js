@@ -1,7 +1,14 @@
 import React from "react";
-import { shallow } from "enzyme";
+import { mount, shallow } from "enzyme";
 import { RetrieveContent } from "pages";
+import store from "store";
 
 it("renders without crashing", () => {
   shallow(<RetrieveContent />);
 });
+
+it("renders the bypass button for a cached userinfo response", () => {
+  store.request = { cached: true, request_url: "http://localhost/userinfo" };
+  const comp = mount(<RetrieveContent />);
+  expect(comp.find("button.userinfo").length).toEqual(2);
+});
@@ -57,14 +57,22 @@ export function postRefreshToken(body) {
   return postPutJson(`/oidc/api/refresh_token`, body, "POST");
 }
 
-export function decodeJWT(jwt) {
-  return fetchJson(`/oidc/api/decode_jwt?jwt=${jwt}`);
+export function decodeJWTs(tokens) {
+  return postPutJson("/oidc/api/decode_jwt", { tokens }, "POST");
 }
 
 export function getTokens(body) {
   return postPutJson(`/oidc/api/token`, body, "POST");
 }
 
+export function generateAuthorizationParameters(codeChallengeMethod) {
+  return postPutJson(
+    "/oidc/api/authorization_parameters",
+    { codeChallengeMethod: isEmpty(codeChallengeMethod) ? undefined : codeChallengeMethod },
+    "POST"
+  );
+}
+
 export function generateCodeChallenge(codeChallengeMethod) {
   return postPutJson(
     "/oidc/api/code_challenge",
@@ -74,5 +82,5 @@ export function generateCodeChallenge(codeChallengeMethod) {
 }
 
 export function reportError(error) {
-  return postPutJson("/oidc/api/error", error, "POST");
+  return postPutJson("/oidc/api/report_error", error, "POST");
 }
@@ -2,41 +2,50 @@ import React from "react";
 import JSONPretty from "react-json-pretty";
 import { observer } from "mobx-react";
 import store from "store";
-import { decodeJWT } from "api";
+import { decodeJWTs } from "api";
 import {InfoLabel} from "./InfoLabel";
 import {accessTokenT, idTokenT} from "./settings/Tooltips";
 
-class DecodeToken extends React.Component {
+const DecodeToken = ({ token, jwt, name, toolTip }) => (
+  <>
+    <InfoLabel label={name} toolTip={toolTip} copyToClipBoardText={token}/>
+    <input disabled value={token} />
+    <JSONPretty id="json-pretty" data={jwt} />
+  </>
+);
+
+class Flow extends React.Component {
   state = {
-    jwt: {}
+    access_token: {},
+    id_token: {}
   };
 
   componentDidMount() {
-    decodeJWT(this.props.token).then(jwt => this.setState({ jwt }));
+    const { access_token, id_token } = this.props;
+    const tokens = [access_token, id_token].filter(token => token);
+    if (tokens.length > 0) {
+      decodeJWTs(tokens).then(decoded =>
+        this.setState({
+          access_token: access_token ? decoded[0] : {},
+          id_token: id_token ? decoded[tokens.length - 1] : {}
+        })
+      );
+    }
   }
 
   render() {
+    const { access_token, id_token } = this.props;
     return (
       <>
-        <InfoLabel label={this.props.name} toolTip={this.props.toolTip} copyToClipBoardText={this.props.token}/>
-        <input disabled value={this.props.token} />
-        <JSONPretty id="json-pretty" data={this.state.jwt} />
+        {access_token && <DecodeToken token={access_token} jwt={this.state.access_token}
+                                      name="Access token" toolTip={accessTokenT()}/>}
+        {id_token && <DecodeToken token={id_token} jwt={this.state.id_token}
+                                  name="ID token" toolTip={idTokenT()}/>}
       </>
     );
   }
 }
 
-const Flow = ({ access_token, id_token }) => {
-  return (
-    <>
-      {access_token && <DecodeToken token={access_token}
-                                    name="Access token" toolTip={accessTokenT()}/>}
-      {id_token && <DecodeToken token={id_token}
-                                name="ID token" toolTip={idTokenT()}/>}
-    </>
-  );
-};
-
 export const JWT = observer(() => {
   const normalFlowData = store.normalFlowAccessToken || store.normalFlowIdToken;
 
@@ -8,6 +8,7 @@ import {
   CodeChallenge,
   ForceAuthentication,
   GrantType,
+  PushedAuthorizationRequest,
   ResponseMode,
   ResponseType,
   Scopes,
@@ -30,10 +31,12 @@ export const SettingsForm = observer(props => {
     grant_type,
     nonce,
     pkce,
+    pushed,
     response_mode,
     response_type,
     scope,
     signedJWT,
+    signedJWTAlgorithm,
     state,
     token_endpoint_auth_method,
     omitAuthentication
@@ -134,7 +137,22 @@ export const SettingsForm = observer(props => {
         moderators={{ grant_type }}
       />
 
-      <SignedJWT value={signedJWT} onChange={val => onChange("signedJWT", val)} moderators={{ auth_protocol }} />
+      <SignedJWT
+        value={signedJWT}
+        onChange={val => onChange("signedJWT", val)}
+        algorithm={{
+          value: signedJWTAlgorithm,
+          options: ["RS256", "ES256", "EdDSA"],
+          onChange: val => onChange("signedJWTAlgorithm", val)
+        }}
+        moderators={{ auth_protocol }}
+      />
+
+      <PushedAuthorizationRequest
+        value={pushed}
+        onChange={val => onChange("pushed", val)}
+        moderators={{ grant_type, pushed_authorization_request_endpoint: store.config.pushed_authorization_request_endpoint }}
+      />
 
       <fieldset>
         <button type="submit" className="button blue">
@@ -0,0 +1,15 @@
+import React from "react";
+import { CheckBox } from "components";
+import { pushedAuthorizationRequestT } from "components/settings/Tooltips";
+
+export const PushedAuthorizationRequest = props => {
+  if (props.moderators.grant_type === "client_credentials" || !props.moderators.pushed_authorization_request_endpoint) {
+    return null;
+  }
+
+  return (
+    <fieldset>
+      <CheckBox {...props} name="pushed" label="Pushed authorization request" toolTip={pushedAuthorizationRequestT()} />
+    </fieldset>
+  );
+};
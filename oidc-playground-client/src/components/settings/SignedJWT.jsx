@@ -1,15 +1,24 @@
 import React from "react";
-import { CheckBox } from "components";
-import { signedJWTT } from "components/settings/Tooltips";
+import { CheckBox, InfoLabel, ReactSelect } from "components";
+import { signedJWTAlgorithmT, signedJWTT } from "components/settings/Tooltips";
 
 export const SignedJWT = props => {
   if (props.moderators.auth_protocol === "Oauth2") {
     return null;
   }
 
+  const { value, algorithm } = props;
+
   return (
     <fieldset>
       <CheckBox {...props} name="signedJWT" label="Encode parameters in signed JWT" toolTip={signedJWTT()} />
+
+      {value && algorithm && (
+        <fieldset>
+          <InfoLabel label="Signing algorithm" toolTip={signedJWTAlgorithmT()} />
+          <ReactSelect {...algorithm} />
+        </fieldset>
+      )}
     </fieldset>
   );
 };
@@ -251,6 +251,21 @@ export const signedJWTT = () => (
   </span>
 );
 
+export const signedJWTAlgorithmT = () => (
+  <span>
+    The algorithm used to sign the JWT. <code>ES256</code> and <code>EdDSA</code> are much cheaper to sign with than<br/>
+    <code>RS256</code>, but the OP must support them. The public keys of all algorithms are published on <code>/certs</code>.
+  </span>
+);
+
+export const pushedAuthorizationRequestT = () => (
+  <span>
+    With a pushed authorization request (RFC 9126) the authorization parameters, including a signed JWT, are posted<br/>
+    to the <code>pushed_authorization_request_endpoint</code> of the OP first. The authorization URL then only contains<br/>
+    the <code>client_id</code> and the <code>request_uri</code> returned by the OP.
+  </span>
+);
+
 export const clientIdT = () => (
   <span>
     Identifier for the OIDC 1.0 Relying Party in Manage. If the Client ID is not known you will be redirected to an<br/>
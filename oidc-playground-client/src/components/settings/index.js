@@ -3,6 +3,7 @@ export { Claims } from "./Claims";
 export { CodeChallenge } from "./CodeChallenge";
 export { ForceAuthentication } from "./ForceAuthentication";
 export { GrantType } from "./GrantType";
+export { PushedAuthorizationRequest } from "./PushedAuthorizationRequest";
 export { ResponseMode } from "./ResponseMode";
 export { ResponseType } from "./ResponseType";
 export { Scopes } from "./Scopes";
@@ -3,7 +3,7 @@ import {observer} from "mobx-react";
 import store from "store";
 import {Authorization, SettingsForm} from "components";
 import {getRedirectParams} from "utils/Url";
-import {formPost, generateCodeChallenge} from "api";
+import {formPost, generateAuthorizationParameters, generateCodeChallenge} from "api";
 import {isEmpty} from "utils/Utils";
 
 export const Config = observer(
@@ -24,11 +24,13 @@ export const Config = observer(
         grant_type: "authorization_code",
         nonce: "example",
         pkce: false,
+        pushed: false,
         omitAuthentication: false,
         response_mode: "fragment",
         response_type: "code",
         scope: [],
         signedJWT: false,
+        signedJWTAlgorithm: "RS256",
         state: "example",
         token_endpoint_auth_method: "client_secret_basic"
       }
@@ -45,10 +47,23 @@ export const Config = observer(
       }
 
       if (window.location.pathname === "/") {
-        this.refreshCodeChallenge();
+        this.refreshAuthorizationParameters();
       }
     }
 
+    refreshAuthorizationParameters = () =>
+      generateAuthorizationParameters(this.state.form.code_challenge_method).then(json =>
+        this.setState({
+          form: {
+            ...this.state.form,
+            code_challenge_method: json.codeChallengeMethod,
+            code_verifier: json.codeVerifier,
+            code_challenge: json.codeChallenge,
+            nonce: json.nonce,
+            state: json.state
+          }
+        }));
+
     refreshCodeChallenge = () =>
       generateCodeChallenge(this.state.form.code_challenge_method).then(json =>
         this.setState({
@@ -9,6 +9,9 @@ export const RetrieveContent = observer(props => {
 
   const refreshToken = store.refreshToken || ((store.request || {}).result || {}).refresh_token;
 
+  const request = store.request || {};
+  const cachedUserinfo = request.cached && request.request_url && request.request_url.endsWith("userinfo");
+
   const body = {
     token: accessToken,
     introspect_endpoint: store.config.introspect_endpoint,
@@ -38,7 +41,7 @@ export const RetrieveContent = observer(props => {
     .then(handleResult)
     .catch(err => handleError(err, "introspect"));
 
-  const handleUserInfo = () => postUserinfo(body)
+  const handleUserInfo = bypassCache => () => postUserinfo({...body, bypass_cache: bypassCache})
     .then(handleResult)
     .catch(err => handleError(err, "userinfo"));
 
@@ -59,8 +62,13 @@ export const RetrieveContent = observer(props => {
             type="button"
             className="button userinfo"
             disabled={!(store.config.userinfo_endpoint && accessToken && !store.clientCredentialsAccessToken)}
-            onClick={handleUserInfo}>Userinfo
+            onClick={handleUserInfo(false)}>Userinfo
           </button>
+          {cachedUserinfo && <button
+            type="button"
+            className="button userinfo"
+            onClick={handleUserInfo(true)}>Userinfo (bypass cache)
+          </button>}
           <button
             type="button"
             className="button introspect"
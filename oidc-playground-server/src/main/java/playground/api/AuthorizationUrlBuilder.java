@@ -0,0 +1,132 @@
+package playground.api;
+
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds the URL of an authorization request for one authorization endpoint. The endpoint is parsed once, the
+ * parameters are written in a fixed order and the values are encoded like {@link java.net.URLEncoder} with UTF-8, but
+ * with a lookup table into a buffer that is reused by the thread.
+ */
+public class AuthorizationUrlBuilder {
+
+    static final List<String> parameterOrder = Arrays.asList("response_type", "client_id", "redirect_uri", "scope",
+            "response_mode", "nonce", "state", "prompt", "acr_values", "claims", "code_challenge",
+            "code_challenge_method", "request", "request_uri");
+
+    private static final int MAX_REUSED_CAPACITY = 16 * 1024;
+
+    private static final char[] hex = "0123456789ABCDEF".toCharArray();
+
+    private static final boolean[] unreserved = new boolean[128];
+
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            unreserved[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            unreserved[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            unreserved[c] = true;
+        }
+        "-_.*".chars().forEach(c -> unreserved[c] = true);
+    }
+
+    private static final ThreadLocal<StringBuilder> buffer = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String prefix;
+
+    public AuthorizationUrlBuilder(URI endpoint) {
+        String url = endpoint.toString();
+        int fragment = url.indexOf('#');
+        if (fragment != -1) {
+            url = url.substring(0, fragment);
+        }
+        this.prefix = url + (endpoint.getRawQuery() == null ? "?" : "&");
+    }
+
+    /**
+     * The URL with the parameters that have a value, the known parameters first in their fixed order and then the
+     * others sorted by name.
+     */
+    public String build(Map<String, String> parameters) {
+        StringBuilder url = buffer.get();
+        url.setLength(0);
+        url.append(prefix);
+        int start = url.length();
+        for (String name : parameterOrder) {
+            append(url, name, parameters.get(name), start);
+        }
+        if (parameters.size() > parameterOrder.size() || !parameterOrder.containsAll(parameters.keySet())) {
+            new TreeMap<>(parameters).forEach((name, value) -> {
+                if (!parameterOrder.contains(name)) {
+                    append(url, name, value, start);
+                }
+            });
+        }
+        String result = url.toString();
+        if (url.capacity() > MAX_REUSED_CAPACITY) {
+            //do not keep the buffer of a large request object around
+            buffer.remove();
+        }
+        return result;
+    }
+
+    private static void append(StringBuilder url, String name, String value, int start) {
+        if (!StringUtils.hasText(value)) {
+            return;
+        }
+        if (url.length() > start) {
+            url.append('&');
+        }
+        encode(name, url);
+        url.append('=');
+        encode(value, url);
+    }
+
+    /**
+     * Same result as URLEncoder.encode(value, "UTF-8"): spaces become '+' and everything except letters, digits and
+     * "-_.*" is percent-encoded as UTF-8.
+     */
+    static void encode(String value, StringBuilder out) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (unreserved[c]) {
+                    out.append(c);
+                } else if (c == ' ') {
+                    out.append('+');
+                } else {
+                    percent(c, out);
+                }
+            } else if (c < 0x800) {
+                percent(0xC0 | (c >> 6), out);
+                percent(0x80 | (c & 0x3F), out);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                percent(0xF0 | (codePoint >> 18), out);
+                percent(0x80 | ((codePoint >> 12) & 0x3F), out);
+                percent(0x80 | ((codePoint >> 6) & 0x3F), out);
+                percent(0x80 | (codePoint & 0x3F), out);
+            } else if (Character.isSurrogate(c)) {
+                //unpaired surrogate, URLEncoder writes the replacement character '?'
+                percent('?', out);
+            } else {
+                percent(0xE0 | (c >> 12), out);
+                percent(0x80 | ((c >> 6) & 0x3F), out);
+                percent(0x80 | (c & 0x3F), out);
+            }
+        }
+    }
+
+    private static void percent(int b, StringBuilder out) {
+        out.append('%').append(hex[(b >> 4) & 0xF]).append(hex[b & 0xF]);
+    }
+}
@@ -1,29 +1,26 @@
 package playground.api;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
+import playground.web.CachedBody;
+import playground.web.ClientErrorReporter;
 
-import javax.servlet.http.HttpServletResponse;
-import java.io.IOException;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 @RestController
 public class Env {
 
-    private static final Logger LOG = LoggerFactory.getLogger(Env.class);
-
     @Value("${gui.disclaimer.background-color}")
     private String disclaimerBackgroundColor;
 
@@ -31,24 +28,28 @@ public class Env {
     private String disclaimerContent;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private ClientErrorReporter clientErrorReporter;
 
-    @GetMapping("/disclaimer")
-    public void disclaimer(HttpServletResponse response) throws IOException {
-        response.setContentType("text/css");
-        response.getWriter().write("body::after {background: " + disclaimerBackgroundColor + ";content: \"" +
-                disclaimerContent + "\";}");
-        response.getWriter().flush();
+    private CachedBody disclaimer;
 
+    @PostConstruct
+    public void init() {
+        byte[] css = ("body::after {background: " + disclaimerBackgroundColor + ";content: \"" +
+                disclaimerContent + "\";}").getBytes(StandardCharsets.UTF_8);
+        disclaimer = new CachedBody(css, new MediaType("text", "css", StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The disclaimer only changes with the configuration, browsers revalidate it and mostly get a 304.
+     */
+    @GetMapping("/disclaimer")
+    public ResponseEntity<byte[]> disclaimer(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return disclaimer.response(ifNoneMatch, CacheControl.noCache());
     }
 
     @PostMapping("/report_error")
-    public void error(@RequestBody Map<String, Object> payload) throws
-            JsonProcessingException, UnknownHostException {
-        payload.put("dateTime", new SimpleDateFormat("yyyyy-mm-dd hh:mm:ss").format(new Date()));
-        payload.put("machine", InetAddress.getLocalHost().getHostName());
-        String msg = objectMapper.writeValueAsString(payload);
-        LOG.error(msg, new IllegalArgumentException(msg));
+    public void error(@RequestBody Map<String, Object> payload) {
+        clientErrorReporter.report(payload);
     }
 
 }
@@ -1,53 +1,65 @@
 package playground.api;
 
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JOSEObjectType;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.RSASSASigner;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.ResponseType;
-import com.nimbusds.oauth2.sdk.pkce.CodeChallenge;
 import com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod;
 import com.nimbusds.oauth2.sdk.pkce.CodeVerifier;
 import com.nimbusds.oauth2.sdk.util.OrderedJSONObject;
 import com.nimbusds.openid.connect.sdk.ClaimsRequest;
+import io.micrometer.core.instrument.Metrics;
 import net.minidev.json.JSONObject;
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import net.minidev.json.JSONValue;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import playground.cache.IntrospectionCache;
+import playground.cache.TokenCache;
+import playground.cache.UserinfoCache;
+import playground.jwt.JwtDecoder;
+import playground.jwt.JwtVerifier;
+import playground.jwt.RequestObjectSigner;
+import playground.jwt.SigningKeys;
+import playground.pkce.Pkce;
+import playground.pkce.PkcePool;
+import playground.provider.Provider;
+import playground.provider.ProviderException;
+import playground.provider.ProviderRegistry;
+import playground.request.AuthorizationRequest;
+import playground.request.ClientRequest;
+import playground.request.CodeChallengeRequest;
+import playground.request.DecodeRequest;
+import playground.request.IntrospectRequest;
+import playground.request.InvalidRequestException;
+import playground.request.TokenRequest;
+import playground.request.UserinfoRequest;
+import playground.upstream.UpstreamClient;
+import reactor.core.publisher.Mono;
 
-import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.Security;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
+import java.nio.charset.StandardCharsets;
 import java.text.ParseException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -56,41 +68,34 @@ import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
 @RestController()
 @RequestMapping(produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-@SuppressWarnings("unchecked")
 public class Oidc implements URLSupport {
 
     static TypeReference<Map<String, Object>> mapTypeReference = new TypeReference<Map<String, Object>>() {
     };
 
-    private static ParameterizedTypeReference<LinkedHashMap<String, Object>> mapResponseType = new ParameterizedTypeReference<LinkedHashMap<String, Object>>() {
-    };
-
-    private Pattern uuidPattern = Pattern.compile("([a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}){1}");
-
-    @Value("${oidc.discovery_endpoint}")
-    private Resource discoveryEndpoint;
-
-    @Value("${oidc.client_id}")
-    private String clientId;
-
-    @Value("${oidc.secret}")
-    private String secret;
+    /**
+     * Parameters that are only sent inside the request object when the authorization request is signed.
+     */
+    private static final Set<String> signedJWTOnlyParameters = new HashSet<>(Arrays.asList("response_mode", "claims",
+            "prompt", "state", "code_challenge", "code_challenge_method", "acr_values"));
 
-    @Value("${oidc.resource_server_id}")
-    private String resourceServerId;
-
-    @Value("${oidc.resource_server_secret}")
-    private String resourceServerSecret;
+    private final Cache<String, AuthorizationUrlBuilder> authorizationUrlBuilders = Caffeine.newBuilder()
+            .maximumSize(256)
+            .build();
 
     @Value("${oidc.redirect_uri}")
     private String redirectUri;
@@ -101,59 +106,96 @@ public class Oidc implements URLSupport {
     @Value("${oidc.client_redirect_uri}")
     private String clientRedirectUri;
 
+    @Value("${oidc.signing.certs_max_age_seconds}")
+    private long certsMaxAgeSeconds;
+
+    @Autowired
+    private ProviderRegistry providerRegistry;
+
+    @Autowired
+    private TokenCache tokenCache;
+
     @Autowired
-    private ObjectMapper objectMapper;
+    private IntrospectionCache introspectionCache;
 
-    private RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    private UserinfoCache userinfoCache;
 
-    private String rsaKeyId = "play_key_id";
+    @Autowired
+    private UpstreamClient upstreamClient;
 
-    private RSAKey rsaKey;
+    @Autowired
+    private JwtVerifier jwtVerifier;
 
-    public Oidc() throws NoSuchProviderException, NoSuchAlgorithmException {
-        Security.addProvider(new BouncyCastleProvider());
-        this.rsaKey = generateRsaKey();
-    }
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private SigningKeys signingKeys;
+
+    @Autowired
+    private RequestObjectSigner requestObjectSigner;
+
+    @Autowired
+    private PkcePool pkcePool;
 
     @GetMapping("/discovery")
-    public Map<String, Object> discovery() throws IOException {
-        return objectMapper.readValue(discoveryEndpoint.getInputStream(), mapTypeReference);
+    public ResponseEntity<byte[]> discovery(@RequestParam(value = "provider", required = false) String provider) {
+        byte[] bytes = providerRegistry.get(provider).getDiscoveryCache().bytes();
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(bytes);
+    }
+
+    @GetMapping("/providers")
+    public List<String> providers() {
+        return providerRegistry.providers().stream().map(Provider::getId).collect(Collectors.toList());
     }
 
     @PostMapping(value = "/code_challenge")
-    public Map<String, Object> codeChallenge(@RequestBody Map<String, Object> body) {
-        sanitizeMap(body);
-        CodeChallengeMethod method = CodeChallengeMethod.parse((String) body.getOrDefault("codeChallengeMethod",
-                CodeChallengeMethod.S256.getValue()));
-        CodeVerifier codeVerifier = new CodeVerifier();
-        CodeChallenge codeChallenge = CodeChallenge.compute(method,
-                new CodeVerifier((String) body.getOrDefault("codeVerifier", codeVerifier.getValue())));
-        body.put("codeChallenge", codeChallenge.getValue());
-        body.put("codeVerifier", codeVerifier.getValue());
-        body.put("codeChallengeMethod", method.getValue());
-        return body;
+    public Map<String, Object> codeChallenge(@RequestBody CodeChallengeRequest body) {
+        CodeChallengeMethod method = CodeChallengeMethod.parse(body.getCodeChallengeMethod() != null ?
+                body.getCodeChallengeMethod() : CodeChallengeMethod.S256.getValue());
+        Pkce pkce = body.getCodeVerifier() != null ?
+                Pkce.compute(new CodeVerifier(body.getCodeVerifier()), method) : pkcePool.next(method);
+        Map<String, Object> result = new HashMap<>();
+        result.put("codeChallenge", pkce.getCodeChallenge().getValue());
+        result.put("codeVerifier", pkce.getCodeVerifier().getValue());
+        result.put("codeChallengeMethod", method.getValue());
+        return result;
+    }
+
+    /**
+     * A new code verifier and challenge, nonce and state in one call.
+     */
+    @PostMapping(value = "/authorization_parameters")
+    public Map<String, Object> authorizationParameters(@RequestBody CodeChallengeRequest body) {
+        Map<String, Object> result = codeChallenge(body);
+        result.put("nonce", PkcePool.randomValue());
+        result.put("state", PkcePool.randomValue());
+        return result;
     }
 
     @PostMapping(value = {"/authorization_code", "/implicit"})
-    public Map<String, String> authorize(@RequestBody Map<String, Object> body) throws URISyntaxException, JOSEException {
-        sanitizeMap(body);
-        Map<String, String> parameters = new HashMap<>();
+    public Mono<Map<String, Object>> authorize(@RequestBody AuthorizationRequest body) throws URISyntaxException, JOSEException {
+        Provider provider = providerRegistry.get(body.getProvider());
+        AuthorizationUrlBuilder urlBuilder = authorizationUrlBuilder(body.getProvider(), body.getAuthorizationEndpoint());
+        String clientId = body.getClientId() != null ? body.getClientId() : provider.getClientId();
+        Map<String, String> parameters = new HashMap<>(32);
 
-        ResponseType responseType = new ResponseType(((String) body.get("response_type")).split(" "));
+        ResponseType responseType = new ResponseType(body.getResponseType().split(" "));
         parameters.put("response_type", responseType.toString());
-        List<String> scopes = (List<String>) body.get("scope");
+        List<String> scopes = body.getScope();
         if (!CollectionUtils.isEmpty(scopes)) {
             parameters.put("scope", String.join(" ", scopes));
         }
-        String responseMode = (String) body.getOrDefault("response_mode", "fragment");
+        String responseMode = body.getResponseMode();
         if (!responseType.impliesCodeFlow()) {
             parameters.put("response_mode", responseMode);
         }
-        List<String> requestedClaims = (List<String>) body.get("claims");
+        List<String> requestedClaims = body.getClaims();
         if (!CollectionUtils.isEmpty(requestedClaims)) {
             parameters.put("claims", claims(requestedClaims));
         }
-        parameters.put("client_id", (String) body.getOrDefault("client_id", clientId));
+        parameters.put("client_id", clientId);
 
         if (!responseType.impliesCodeFlow() && responseMode.equals("form_post")) {
             parameters.put("redirect_uri", redirectUriFormPost);
@@ -161,132 +203,285 @@ public class Oidc implements URLSupport {
             parameters.put("redirect_uri", redirectUri);
         }
 
-        if ((boolean) body.getOrDefault("forceAuthentication", false)) {
+        if (body.isForceAuthentication()) {
             parameters.put("prompt", "login");
         }
 
-        parameters.put("nonce", (String) body.get("nonce"));
-        parameters.put("state", (String) body.get("state"));
+        parameters.put("nonce", body.getNonce());
+        parameters.put("state", body.getState());
 
-        if ((boolean) body.getOrDefault("pkce", false)) {
-            parameters.put("code_challenge", (String) body.get("code_challenge"));
-            parameters.put("code_challenge_method", (String) body.get("code_challenge_method"));
+        if (body.isPkce()) {
+            parameters.put("code_challenge", body.getCodeChallenge());
+            parameters.put("code_challenge_method", body.getCodeChallengeMethod());
+        }
+        parameters.put("acr_values", body.getAcrValues());
+
+        Map<String, Object> result = new HashMap<>();
+        if (body.isSignedJWT()) {
+            JWSAlgorithm algorithm = JWSAlgorithm.parse(body.getSignedJWTAlgorithm());
+            if (!SigningKeys.algorithms.contains(algorithm)) {
+                throw new InvalidRequestException(String.format("Unsupported signedJWTAlgorithm %s, supported are %s",
+                        algorithm, SigningKeys.algorithms));
+            }
+            RequestObjectSigner.Signed signed = signedJWT(parameters, clientId, algorithm);
+            parameters.put("request", signed.getSignedJWT().serialize());
+            result.put("signing_time_micros", signed.getDurationMicros());
+            parameters.keySet().removeAll(signedJWTOnlyParameters);
         }
-        parameters.put("acr_values", (String) body.get("acr_values"));
 
-        if ((boolean) body.getOrDefault("signedJWT", false)) {
-            parameters.put("request", signedJWT(parameters).serialize());
-            List<String> toRemove = Arrays.asList("response_mode", "claims", "prompt", "state", "code_challenge", "code_challenge_method", "acr_values");
-            parameters.keySet().removeIf(key -> toRemove.contains(key));
+        if (body.isPushed()) {
+            return pushAuthorizationRequest(body, clientId, parameters, urlBuilder, result);
         }
+        result.put("url", urlBuilder.build(parameters));
+        return Mono.just(result);
+    }
 
-        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString((String) body.get("authorization_endpoint"));
+    /**
+     * Posts the parameters to the pushed_authorization_request_endpoint (RFC 9126), so the authorization URL only
+     * carries the client_id and the request_uri of the OP, no matter how large the claims or the request object are.
+     */
+    private Mono<Map<String, Object>> pushAuthorizationRequest(AuthorizationRequest body, String clientId,
+                                                               Map<String, String> parameters,
+                                                               AuthorizationUrlBuilder urlBuilder,
+                                                               Map<String, Object> result) throws URISyntaxException {
+        URI endpoint = endpoint(body.getProvider(), body.getPushedAuthorizationRequestEndpoint(),
+                "pushed_authorization_request_endpoint");
+        Map<String, String> requestBody = new HashMap<>();
         parameters.forEach((key, value) -> {
             if (StringUtils.hasText(value)) {
-                builder.queryParam(key, encode(value));
+                requestBody.put(key, value);
+            }
+        });
+        RequestEntity.BodyBuilder builder = authenticatedPost(body, requestBody, endpoint);
+        return callPostEndpoint(UpstreamClient.PUSHED_AUTHORIZATION_REQUEST, requestBody, endpoint, builder).map(response -> {
+            Object requestUri = ((Map<?, ?>) response.get("result")).get("request_uri");
+            if (!(requestUri instanceof String)) {
+                throw new ProviderException(String.format("No request_uri returned by %s", endpoint));
             }
+            Map<String, String> pushed = new HashMap<>();
+            pushed.put("client_id", clientId);
+            pushed.put("request_uri", (String) requestUri);
+            result.put("url", urlBuilder.build(pushed));
+            result.put("pushed_authorization_request", response);
+            return result;
         });
-        return Collections.singletonMap("url", builder.build().toUriString());
     }
 
     @PostMapping("/token")
-    public Map<String, Object> token(@RequestBody Map<String, Object> body) throws URISyntaxException {
-        body.put("redirect_uri", redirectUri);
+    public Mono<Map<String, Object>> token(@RequestBody TokenRequest body) throws URISyntaxException {
         return doToken(body, "authorization_code");
     }
 
     @PostMapping("/client_credentials")
-    public Map<String, Object> clientCredentials(@RequestBody Map<String, Object> body) throws URISyntaxException {
-        return doToken(body, "client_credentials");
+    public Mono<Map<String, Object>> clientCredentials(@RequestBody TokenRequest body) throws URISyntaxException {
+        if (!tokenCache.isEnabled()) {
+            return doToken(body, "client_credentials");
+        }
+        Provider provider = providerRegistry.get(body.getProvider());
+        URI endpoint = endpoint(body.getProvider(), body.getTokenEndpoint(), "token_endpoint");
+        return tokenCache.get(endpoint.toString(),
+                body.getClientId() != null ? body.getClientId() : provider.getClientId(),
+                body.getClientSecret() != null ? body.getClientSecret() : provider.getSecret(),
+                body.getScope(),
+                //"none" like in client registration, a request without credentials must not get a token issued to the client
+                body.isOmitAuthentication() ? "none" : body.getTokenEndpointAuthMethod(),
+                () -> deferred(() -> doToken(body, "client_credentials")));
     }
 
     @PostMapping("/refresh_token")
-    public Map<String, Object> refreshToken(@RequestBody Map<String, Object> body) throws URISyntaxException {
+    public Mono<Map<String, Object>> refreshToken(@RequestBody TokenRequest body) throws URISyntaxException {
         return doToken(body, "refresh_token");
     }
 
     @PostMapping("/introspect")
-    public Map<String, Object> introspect(@RequestBody Map<String, Object> body) throws URISyntaxException {
-        body.put("client_id", resourceServerId);
-        body.put("client_secret", resourceServerSecret);
+    public Mono<Map<String, Object>> introspect(@RequestBody IntrospectRequest body) throws URISyntaxException {
+        Provider provider = providerRegistry.get(body.getProvider());
+        body.setClientId(provider.getResourceServerId());
+        body.setClientSecret(provider.getResourceServerSecret());
+
+        URI endpoint = endpoint(body.getProvider(), body.getIntrospectEndpoint(), "introspect_endpoint");
+        Map<String, String> requestBody = Collections.singletonMap("token", body.getToken());
+        if (!introspectionCache.isEnabled()) {
+            return doPost(UpstreamClient.INTROSPECT, body, requestBody, endpoint);
+        }
+        return introspectionCache.get(endpoint.toString(), body.getToken(),
+                body.isOmitAuthentication() ? "none" : body.getTokenEndpointAuthMethod(),
+                () -> doPost(UpstreamClient.INTROSPECT, body, requestBody, endpoint));
+    }
 
-        return doPost(body, Collections.singletonMap("token", (String) body.get("token")), (String) body.get("introspect_endpoint"));
+    /**
+     * The response of the OP is streamed to the client, the introspection cache is not used.
+     */
+    @PostMapping(value = "/introspect", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamIntrospect(@RequestBody IntrospectRequest body) throws URISyntaxException {
+        Provider provider = providerRegistry.get(body.getProvider());
+        body.setClientId(provider.getResourceServerId());
+        body.setClientSecret(provider.getResourceServerSecret());
+
+        URI endpoint = endpoint(body.getProvider(), body.getIntrospectEndpoint(), "introspect_endpoint");
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("token", body.getToken());
+        return streamPostEndpoint(UpstreamClient.INTROSPECT, requestBody, endpoint,
+                authenticatedPost(body, requestBody, endpoint));
+    }
+
+    private Mono<Map<String, Object>> deferred(Callable<Mono<Map<String, Object>>> call) {
+        return Mono.defer(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                return Mono.error(e);
+            }
+        });
     }
 
     @PostMapping("/userinfo")
-    public Map<String, Object> userinfo(@RequestBody Map<String, Object> body) throws URISyntaxException {
-        String endpoint = (String) body.get("userinfo_endpoint");
-        String token = (String) body.get("token");
-        RequestEntity.BodyBuilder builder = RequestEntity
-                .post(new URI(endpoint))
+    public Mono<Map<String, Object>> userinfo(@RequestBody UserinfoRequest body) throws URISyntaxException {
+        URI endpoint = endpoint(body.getProvider(), body.getUserinfoEndpoint(), "userinfo_endpoint");
+        String token = body.getToken();
+        RequestEntity.BodyBuilder builder = bearerPost(endpoint, token);
+
+        Map<String, String> requestBody = Collections.singletonMap("access_token", token);
+        if (!userinfoCache.isEnabled()) {
+            return callPostEndpoint(UpstreamClient.USERINFO, requestBody, endpoint, builder);
+        }
+        return userinfoCache.get(endpoint.toString(), token, body.isBypassCache(),
+                () -> callPostEndpoint(UpstreamClient.USERINFO, requestBody, endpoint, builder));
+    }
+
+    /**
+     * The response of the OP is streamed to the client, the userinfo cache is not used.
+     */
+    @PostMapping(value = "/userinfo", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamUserinfo(@RequestBody UserinfoRequest body) throws URISyntaxException {
+        URI endpoint = endpoint(body.getProvider(), body.getUserinfoEndpoint(), "userinfo_endpoint");
+        String token = body.getToken();
+        return streamPostEndpoint(UpstreamClient.USERINFO, Collections.singletonMap("access_token", token), endpoint,
+                bearerPost(endpoint, token));
+    }
+
+    private RequestEntity.BodyBuilder bearerPost(URI endpoint, String token) {
+        return RequestEntity
+                .post(endpoint)
                 .accept(MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON_UTF8)
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
                 .header("Authorization", "Bearer " + token);
-
-        Map<String, String> requestBody = Collections.singletonMap("access_token", token);
-        return callPostEndpoint(requestBody, (String) body.get("userinfo_endpoint"), builder);
     }
 
     @GetMapping("/decode_jwt")
-    public String decodeJwtToken(@RequestParam("jwt") String jwt) throws ParseException {
-        if (uuidPattern.matcher(jwt).matches()) {
+    public String decodeJwtToken(@RequestParam("jwt") String jwt,
+                                 @RequestParam(value = "verify", defaultValue = "false") boolean verify,
+                                 @RequestParam(value = "audience", required = false) String audience,
+                                 @RequestParam(value = "nonce", required = false) String nonce,
+                                 @RequestParam(value = "access_token", required = false) String accessToken,
+                                 @RequestParam(value = "code", required = false) String code,
+                                 @RequestParam(value = "provider", required = false) String provider) throws ParseException {
+        if (!JwtDecoder.isJwt(jwt)) {
             return jwt;
         }
-        SignedJWT signedJWT = SignedJWT.parse(jwt);
-        JSONObject result = new OrderedJSONObject();
-        result.put("header", signedJWT.getHeader().toJSONObject());
-        result.put("payload", signedJWT.getJWTClaimsSet().toJSONObject());
+        long start = System.nanoTime();
+        String json;
+        if (verify) {
+            //an unknown provider is a bad request, not a failed verification
+            Provider op = providerRegistry.get(provider);
+            SignedJWT signedJWT = SignedJWT.parse(jwt);
+            JSONObject result = new OrderedJSONObject();
+            result.put("header", signedJWT.getHeader().toJSONObject());
+            result.put("payload", signedJWT.getJWTClaimsSet().toJSONObject());
+            String audienceToUse = StringUtils.hasText(audience) ? audience : op.getClientId();
+            result.put("verification", jwtVerifier.verify(provider, signedJWT, audienceToUse, nonce, accessToken, code));
+            json = result.toJSONString();
+        } else {
+            json = jwtDecoder.decode(jwt);
+        }
+        Metrics.timer("oidc.jwt.decode", "verify", String.valueOf(verify))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return json;
+    }
 
-        return result.toJSONString();
+    /**
+     * Decodes all tokens in one request, the result is a JSON array in the order of the tokens. Opaque tokens are
+     * returned as string and a token that can not be parsed results in an object with the error.
+     */
+    @PostMapping("/decode_jwt")
+    public String decodeJwtTokens(@RequestBody DecodeRequest body) {
+        List<String> tokens = body.getTokens() != null ? body.getTokens() : Collections.emptyList();
+        Stream<String> stream = tokens.size() > 1 ? tokens.parallelStream() : tokens.stream();
+        return stream.map(this::decodeOrQuote).collect(Collectors.joining(",", "[", "]"));
     }
 
     @GetMapping(value = {"/certs"}, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public String publishClientJwk() throws NoSuchProviderException, NoSuchAlgorithmException {
-        return new JWKSet(this.rsaKey.toPublicJWK()).toJSONObject().toString();
+    public ResponseEntity<byte[]> publishClientJwk(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return signingKeys.publicKeySet().response(ifNoneMatch,
+                CacheControl.maxAge(certsMaxAgeSeconds, TimeUnit.SECONDS).cachePublic());
     }
 
 
-    private Map<String, Object> doToken(Map<String, Object> body, String grantType) throws URISyntaxException {
+    private Mono<Map<String, Object>> doToken(TokenRequest body, String grantType) throws URISyntaxException {
         HashMap<String, String> requestBody = new HashMap<>();
         requestBody.put("grant_type", grantType);
 
-        if (body.containsKey("code")) {
-            requestBody.put("code", (String) body.get("code"));
+        if (body.getCode() != null) {
+            requestBody.put("code", body.getCode());
         }
-        if (body.containsKey("refresh_token")) {
-            requestBody.put("refresh_token", (String) body.get("refresh_token"));
+        if (body.getRefreshToken() != null) {
+            requestBody.put("refresh_token", body.getRefreshToken());
         }
-        if (body.containsKey("scope")) {
-            List<String> scopes = (List<String>) body.get("scope");
-            if (!CollectionUtils.isEmpty(scopes)) {
-                requestBody.put("scope", String.join(" ", (List<String>) body.get("scope")));
-            }
+        if (!CollectionUtils.isEmpty(body.getScope())) {
+            requestBody.put("scope", String.join(" ", body.getScope()));
+        }
+        if (body.isPkce()) {
+            requestBody.put("code_verifier", body.getCodeVerifier());
+        }
+        return doPost(UpstreamClient.TOKEN, body, requestBody,
+                endpoint(body.getProvider(), body.getTokenEndpoint(), "token_endpoint"));
+    }
+
+    /**
+     * The endpoint is only parsed the first time it is used, for a provider the builder follows the metadata.
+     */
+    private AuthorizationUrlBuilder authorizationUrlBuilder(String provider, String endpoint) throws URISyntaxException {
+        String key = !StringUtils.hasText(provider) && StringUtils.hasText(endpoint) ?
+                endpoint : providerRegistry.get(provider).endpoint("authorization_endpoint").toString();
+        AuthorizationUrlBuilder builder = authorizationUrlBuilders.getIfPresent(key);
+        if (builder == null) {
+            builder = new AuthorizationUrlBuilder(new URI(key));
+            authorizationUrlBuilders.put(key, builder);
         }
-        if ((boolean) body.getOrDefault("pkce", false)) {
-            requestBody.put("code_verifier", (String) body.get("code_verifier"));
+        return builder;
+    }
+
+    /**
+     * Requests for a provider use its endpoints, other requests the endpoint they sent or else the endpoint of the
+     * default provider.
+     */
+    private URI endpoint(String provider, String endpoint, String name) throws URISyntaxException {
+        if (!StringUtils.hasText(provider) && StringUtils.hasText(endpoint)) {
+            return new URI(endpoint);
         }
-        return doPost(body, requestBody, (String) body.get("token_endpoint"));
+        return providerRegistry.get(provider).endpoint(name);
     }
 
-    private Map<String, Object> doPost(Map<String, Object> body, Map<String, String> requestBody, String endpoint) throws URISyntaxException {
-        sanitizeMap(body);
-        String clientIdToUse = (String) body.get("client_id");
-        clientIdToUse = StringUtils.hasText(clientIdToUse) ? clientIdToUse : clientId;
+    private Mono<Map<String, Object>> doPost(String name, ClientRequest body, Map<String, String> requestBody,
+                                            URI endpoint) {
+        return callPostEndpoint(name, requestBody, endpoint, authenticatedPost(body, requestBody, endpoint));
+    }
 
-        String secretToUse = (String) body.get("client_secret");
-        secretToUse = StringUtils.hasText(secretToUse) ? secretToUse : secret;
+    private RequestEntity.BodyBuilder authenticatedPost(ClientRequest body, Map<String, String> requestBody, URI endpoint) {
+        Provider provider = providerRegistry.get(body.getProvider());
+        String clientIdToUse = body.getClientId() != null ? body.getClientId() : provider.getClientId();
+        String secretToUse = body.getClientSecret() != null ? body.getClientSecret() : provider.getSecret();
 
         RequestEntity.BodyBuilder builder = RequestEntity
-                .post(new URI(endpoint))
+                .post(endpoint)
                 .accept(MediaType.APPLICATION_JSON, MediaType.APPLICATION_JSON_UTF8)
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED);
 
-        String authMethod = (String) body.getOrDefault("token_endpoint_auth_method", "client_secret_basic");
-        boolean omitAuthentication = (boolean) body.getOrDefault("omitAuthentication", false);
-        if (!omitAuthentication) {
-            if (authMethod.equals("client_secret_basic")) {
+        if (!body.isOmitAuthentication()) {
+            if (body.getTokenEndpointAuthMethod().equals("client_secret_basic")) {
                 builder.header(AUTHORIZATION, "Basic " +
-                        new String(Base64.getEncoder().encode((clientIdToUse + ":" + secretToUse).getBytes())));
+                        new String(Base64.getEncoder().encode((clientIdToUse + ":" + secretToUse).getBytes(StandardCharsets.UTF_8)),
+                                StandardCharsets.UTF_8));
             } else {
                 requestBody.put("client_id", clientIdToUse);
                 requestBody.put("client_secret", secretToUse);
@@ -294,83 +489,97 @@ public class Oidc implements URLSupport {
         } else {
             requestBody.put("client_id", clientIdToUse);
         }
+        return builder;
+    }
+
+    /**
+     * @param name the name of the endpoint for the upstream client, see {@link UpstreamClient#TOKEN}
+     */
+    private Mono<Map<String, Object>> callPostEndpoint(String name, Map<String, String> requestBody, URI endpoint,
+                                                       RequestEntity.BodyBuilder builder) {
+        RequestEntity<MultiValueMap<String, String>> requestEntity = builder.body(form(requestBody));
+
+        return upstreamClient.exchange(name, requestEntity)
+                .defaultIfEmpty(Collections.emptyMap())
+                .map(body -> {
+                    Map<String, Object> result = envelope(requestBody, endpoint, requestEntity);
+                    result.put("result", body);
+                    return result;
+                });
+    }
 
-        return callPostEndpoint(requestBody, endpoint, builder);
+    /**
+     * Same response as callPostEndpoint, but the body of the OP is copied into the response as it comes in instead of
+     * being parsed and serialized again. Memory use does not depend on the size of the response of the OP.
+     */
+    private ResponseEntity<StreamingResponseBody> streamPostEndpoint(String name, Map<String, String> requestBody,
+                                                                     URI endpoint, RequestEntity.BodyBuilder builder) {
+        RequestEntity<MultiValueMap<String, String>> requestEntity = builder.body(form(requestBody));
+        String envelope = JSONObject.toJSONString(envelope(requestBody, endpoint, requestEntity));
+        StreamingResponseBody responseBody = outputStream -> {
+            ResultOutputStream resultOutputStream = new ResultOutputStream(outputStream, envelope);
+            upstreamClient.stream(name, requestEntity, resultOutputStream).block();
+            resultOutputStream.finish();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(responseBody);
     }
 
-    private Map<String, Object> callPostEndpoint(Map<String, String> requestBody, String endpoint, RequestEntity.BodyBuilder builder) {
-        LinkedMultiValueMap form = new LinkedMultiValueMap();
+    private MultiValueMap<String, String> form(Map<String, String> requestBody) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
         requestBody.forEach(form::set);
-        RequestEntity<LinkedMultiValueMap> requestEntity = builder.body(form);
+        return form;
+    }
 
-        Map<String, Object> result = new HashMap();
-        result.put("result", restTemplate.exchange(requestEntity, mapResponseType).getBody());
+    private Map<String, Object> envelope(Map<String, String> requestBody, URI endpoint,
+                                         RequestEntity<MultiValueMap<String, String>> requestEntity) {
+        Map<String, Object> result = new HashMap<>();
         result.put("request_body", anonymizeInformation(requestBody));
-        result.put("request_url", endpoint);
+        result.put("request_url", endpoint.toString());
         result.put("request_headers", anonymizeInformation(requestEntity.getHeaders().toSingleValueMap()));
         return result;
     }
 
-    private void sanitizeMap(Map<String, Object> body) {
-        body.values().removeIf(val -> {
-            if (val == null) {
-                return true;
-            }
-            if (val instanceof List) {
-                return CollectionUtils.isEmpty((List) val);
-            }
-            if (val instanceof String) {
-                return StringUtils.isEmpty(val);
-            }
-            return false;
-        });
-    }
-
-    private Map<String, String> anonymizeInformation(Map<String, String> headers) {
+    Map<String, String> anonymizeInformation(Map<String, String> headers) {
         Map<String, String> result = new HashMap<>(headers);
         List<String> sensitiveHeaders = Arrays.asList("client_id", "client_secret", AUTHORIZATION);
         sensitiveHeaders.forEach(header -> result.replace(header, "XXX"));
         return result;
     }
 
+    private String decodeOrQuote(String token) {
+        if (!JwtDecoder.isJwt(token)) {
+            return JSONValue.toJSONString(token);
+        }
+        long start = System.nanoTime();
+        try {
+            return jwtDecoder.decode(token);
+        } catch (ParseException e) {
+            return new JSONObject(Collections.singletonMap("error", e.getMessage())).toJSONString();
+        } finally {
+            Metrics.timer("oidc.jwt.decode", "verify", "false").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
     private String claims(List<String> requestedClaims) {
         ClaimsRequest claimsRequest = new ClaimsRequest();
         requestedClaims.forEach(claimsRequest::addIDTokenClaim);
         return claimsRequest.toString();
     }
 
-    private RSAKey generateRsaKey() throws NoSuchAlgorithmException, NoSuchProviderException {
-        KeyPairGenerator kpg = KeyPairGenerator.getInstance("RSA", "BC");
-        kpg.initialize(2048);
-        KeyPair keyPair = kpg.generateKeyPair();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        return new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .algorithm(JWSAlgorithm.RS256)
-                .keyID(rsaKeyId)
-                .build();
-    }
-
-    private SignedJWT signedJWT(Map<String, String> form) throws JOSEException {
+    RequestObjectSigner.Signed signedJWT(Map<String, String> form, String clientId, JWSAlgorithm algorithm) throws JOSEException {
         Instant now = Instant.now();
         JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
                 .audience("audience")
                 .expirationTime(Date.from(now.plus(3600, ChronoUnit.SECONDS)))
                 .jwtID(UUID.randomUUID().toString())
-                .issuer(this.clientId)
+                .issuer(clientId)
                 .issueTime(Date.from(now))
-                .subject(this.clientId)
+                .subject(clientId)
                 .notBeforeTime(new Date(System.currentTimeMillis()));
 
         form.forEach(builder::claim);
 
-        JWTClaimsSet claimsSet = builder.build();
-        JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.RS256).type(JOSEObjectType.JWT).keyID(rsaKeyId).build();
-        SignedJWT signedJWT = new SignedJWT(header, claimsSet);
-        JWSSigner jswsSigner = new RSASSASigner(this.rsaKey.toPrivateKey());
-        signedJWT.sign(jswsSigner);
-        return signedJWT;
+        return requestObjectSigner.sign(builder.build(), algorithm);
     }
 
 }
@@ -0,0 +1,59 @@
+package playground.api;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wraps the body of the OP in the JSON object the client expects. The envelope with the request body, url and headers
+ * is written before the first byte of the body, so nothing is committed when the OP returns an error.
+ */
+class ResultOutputStream extends FilterOutputStream {
+
+    private static final byte[] emptyResult = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] prefix;
+    private boolean started;
+
+    ResultOutputStream(OutputStream out, String envelope) {
+        super(out);
+        //the envelope is a JSON object, the result is added as its last property
+        this.prefix = (envelope.substring(0, envelope.lastIndexOf('}')) + (envelope.length() > 2 ? "," : "") +
+                "\"result\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        start();
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return;
+        }
+        start();
+        out.write(b, off, len);
+    }
+
+    /**
+     * Closes the envelope, an empty body of the OP is written as an empty result like the buffered responses.
+     */
+    void finish() throws IOException {
+        if (!started) {
+            start();
+            out.write(emptyResult);
+        }
+        out.write('}');
+        out.flush();
+    }
+
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            out.write(prefix);
+        }
+    }
+}
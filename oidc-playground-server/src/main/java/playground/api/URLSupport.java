@@ -3,13 +3,15 @@ package playground.api;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 public interface URLSupport {
 
+    String UTF_8 = StandardCharsets.UTF_8.name();
+
     default String decode(String s) {
         try {
-            return URLDecoder.decode(s, Charset.defaultCharset().toString());
+            return URLDecoder.decode(s, UTF_8);
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException(e);
         }
@@ -17,7 +19,7 @@ public interface URLSupport {
 
     default String encode(String s) {
         try {
-            return URLEncoder.encode(s, Charset.defaultCharset().toString());
+            return URLEncoder.encode(s, UTF_8);
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException(e);
         }
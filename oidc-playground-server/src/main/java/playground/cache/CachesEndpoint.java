@@ -0,0 +1,42 @@
+package playground.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Statistics of the response caches, DELETE flushes all of them or the one with the given name.
+ */
+@Component
+@Endpoint(id = "oidccaches")
+public class CachesEndpoint {
+
+    private final List<FlushableCache> caches;
+
+    public CachesEndpoint(List<FlushableCache> caches) {
+        this.caches = caches;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caches() {
+        Map<String, Object> result = new TreeMap<>();
+        caches.forEach(cache -> result.put(cache.name(), cache.stats()));
+        return result;
+    }
+
+    @DeleteOperation
+    public void flush() {
+        caches.forEach(FlushableCache::invalidateAll);
+    }
+
+    @DeleteOperation
+    public void flush(@Selector String name) {
+        caches.stream().filter(cache -> cache.name().equals(name)).forEach(FlushableCache::invalidateAll);
+    }
+}
@@ -0,0 +1,223 @@
+package playground.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of the discovery document of the OP. The document is refreshed in the background before the TTL
+ * expires and revalidated with ETag / Last-Modified. When the OP is slow or down the last good copy is served.
+ */
+@Component
+public class DiscoveryCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DiscoveryCache.class);
+
+    private static final TypeReference<Map<String, Object>> mapTypeReference = new TypeReference<Map<String, Object>>() {
+    };
+
+    private static final long MIN_REFRESH_DELAY_MILLIS = 1000L;
+
+    private final Resource discoveryEndpoint;
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final int timeoutMillis;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "discovery-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter hits = Metrics.counter("oidc.discovery.cache", "result", "hit");
+    private final Counter misses = Metrics.counter("oidc.discovery.cache", "result", "miss");
+    private final Counter stale = Metrics.counter("oidc.discovery.cache", "result", "stale");
+
+    private volatile Entry current;
+
+    private CompletableFuture<Entry> inFlight;
+
+    private ScheduledFuture<?> nextRefresh;
+
+    public DiscoveryCache(@Value("${oidc.discovery_endpoint}") Resource discoveryEndpoint,
+                          ObjectMapper objectMapper,
+                          @Value("${oidc.discovery_cache.ttl_seconds}") long ttlSeconds,
+                          @Value("${oidc.discovery_cache.refresh_ahead_seconds}") long refreshAheadSeconds,
+                          @Value("${oidc.discovery_cache.timeout_millis}") int timeoutMillis) {
+        this.discoveryEndpoint = discoveryEndpoint;
+        this.objectMapper = objectMapper;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.refreshAheadMillis = TimeUnit.SECONDS.toMillis(refreshAheadSeconds);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        refresh();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public Map<String, Object> get() {
+        return entry().metadata;
+    }
+
+    public byte[] bytes() {
+        return entry().bytes;
+    }
+
+    private Entry entry() {
+        Entry entry = current;
+        if (entry == null) {
+            misses.increment();
+            try {
+                return refresh().join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            }
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            stale.increment();
+            refresh();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Concurrent callers share the same fetch, so a burst of cache misses results in one call to the OP.
+     */
+    synchronized CompletableFuture<Entry> refresh() {
+        if (inFlight == null || inFlight.isDone()) {
+            Entry previous = current;
+            inFlight = CompletableFuture.supplyAsync(() -> fetch(previous), scheduler).whenComplete(this::refreshed);
+        }
+        return inFlight;
+    }
+
+    private synchronized void refreshed(Entry entry, Throwable throwable) {
+        long delay;
+        if (throwable == null) {
+            current = entry;
+            delay = ttlMillis - refreshAheadMillis;
+        } else if (current != null) {
+            LOG.warn("Failed to refresh discovery document from {}, serving the last good copy", discoveryEndpoint, throwable);
+            delay = refreshAheadMillis;
+        } else {
+            LOG.error("Failed to fetch discovery document from {}", discoveryEndpoint, throwable);
+            return;
+        }
+        if (nextRefresh != null) {
+            nextRefresh.cancel(false);
+        }
+        if (!scheduler.isShutdown()) {
+            nextRefresh = scheduler.schedule(() -> {
+                refresh();
+            }, Math.max(delay, MIN_REFRESH_DELAY_MILLIS), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Entry fetch(Entry previous) {
+        try {
+            return isHttp() ? fetchHttp(previous) : parse(readResource(), null, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Entry fetchHttp(Entry previous) throws IOException {
+        URL url = discoveryEndpoint.getURL();
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        connection.setRequestProperty("Accept", "application/json");
+        if (previous != null) {
+            if (previous.etag != null) {
+                connection.setRequestProperty("If-None-Match", previous.etag);
+            }
+            if (previous.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", previous.lastModified);
+            }
+        }
+        int status = connection.getResponseCode();
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED && previous != null) {
+            LOG.debug("Discovery document from {} not modified", url);
+            return new Entry(previous.metadata, previous.bytes, previous.etag, previous.lastModified, expiresAt());
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException(String.format("Unexpected status %s from discovery endpoint %s", status, url));
+        }
+        byte[] body;
+        try (InputStream inputStream = connection.getInputStream()) {
+            body = StreamUtils.copyToByteArray(inputStream);
+        }
+        return parse(body, connection.getHeaderField("ETag"), connection.getHeaderField("Last-Modified"));
+    }
+
+    private byte[] readResource() throws IOException {
+        try (InputStream inputStream = discoveryEndpoint.getInputStream()) {
+            return StreamUtils.copyToByteArray(inputStream);
+        }
+    }
+
+    private Entry parse(byte[] body, String etag, String lastModified) throws IOException {
+        Map<String, Object> metadata = objectMapper.readValue(body, mapTypeReference);
+        return new Entry(Collections.unmodifiableMap(metadata), objectMapper.writeValueAsBytes(metadata), etag,
+                lastModified, expiresAt());
+    }
+
+    private long expiresAt() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    private boolean isHttp() throws IOException {
+        return discoveryEndpoint instanceof UrlResource && discoveryEndpoint.getURL().getProtocol().startsWith("http");
+    }
+
+    private static class Entry {
+
+        private final Map<String, Object> metadata;
+        private final byte[] bytes;
+        private final String etag;
+        private final String lastModified;
+        private final long expiresAt;
+
+        private Entry(Map<String, Object> metadata, byte[] bytes, String etag, String lastModified, long expiresAt) {
+            this.metadata = metadata;
+            this.bytes = bytes;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package playground.cache;
+
+import java.util.Map;
+
+/**
+ * A cache that shows up in the oidccaches actuator endpoint, where its statistics can be read and its entries flushed.
+ */
+public interface FlushableCache {
+
+    String name();
+
+    Map<String, Object> stats();
+
+    void invalidateAll();
+}
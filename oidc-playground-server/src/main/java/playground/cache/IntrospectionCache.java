@@ -0,0 +1,53 @@
+package playground.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of introspection results, keyed by the endpoint, the hash of the token and the authentication method, "none"
+ * when the authentication is omitted. Active tokens are kept for at most
+ * max_ttl_seconds and never after the exp returned by the OP, inactive tokens for negative_ttl_seconds.
+ */
+@Component
+public class IntrospectionCache extends ResponseCache {
+
+    private final long maxTtlNanos;
+    private final long negativeTtlNanos;
+
+    public IntrospectionCache(@Value("${oidc.introspection_cache.enabled}") boolean enabled,
+                              @Value("${oidc.introspection_cache.max_size}") long maxSize,
+                              @Value("${oidc.introspection_cache.max_ttl_seconds}") long maxTtlSeconds,
+                              @Value("${oidc.introspection_cache.negative_ttl_seconds}") long negativeTtlSeconds) {
+        super("introspection", enabled, Caffeine.newBuilder().maximumSize(maxSize));
+        this.maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+    }
+
+    public Mono<Map<String, Object>> get(String endpoint, String token, String authMethod,
+                                         Supplier<Mono<Map<String, Object>>> issuer) {
+        //without the authentication method a request without credentials would not see the 401 of the OP
+        return get(Arrays.asList(endpoint, hash(token), authMethod), issuer);
+    }
+
+    @Override
+    protected long timeToLiveNanos(Map<String, Object> response) {
+        Map<String, Object> result = result(response);
+        if (result == null || !Boolean.TRUE.equals(result.get("active"))) {
+            return negativeTtlNanos;
+        }
+        Object exp = result.get("exp");
+        if (exp instanceof Number) {
+            long untilExp = TimeUnit.SECONDS.toNanos(((Number) exp).longValue())
+                    - TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+            return Math.min(maxTtlNanos, untilExp);
+        }
+        return maxTtlNanos;
+    }
+}
@@ -0,0 +1,156 @@
+package playground.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Base for the caches of responses of the OP. Concurrent requests for the same key share one call to the OP, failed
+ * calls are not cached and the time to live of an entry is decided by the subclass based on the response. Responses
+ * get a "cached" flag telling if the OP was called for this request.
+ */
+public abstract class ResponseCache implements FlushableCache {
+
+    private final String name;
+    private final boolean enabled;
+    private final AsyncCache<List<String>, Map<String, Object>> cache;
+
+    protected ResponseCache(String name, boolean enabled, Caffeine<Object, Object> builder) {
+        this.name = name;
+        this.enabled = enabled;
+        this.cache = builder
+                .expireAfter(new Expiry<List<String>, Map<String, Object>>() {
+                    @Override
+                    public long expireAfterCreate(List<String> key, Map<String, Object> value, long currentTime) {
+                        return Math.max(0L, timeToLiveNanos(value));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(List<String> key, Map<String, Object> value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(List<String> key, Map<String, Object> value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache.synchronous(), name);
+    }
+
+    /**
+     * The time to live of the response in nanoseconds, zero or less means it is not cached.
+     */
+    protected abstract long timeToLiveNanos(Map<String, Object> response);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    protected Mono<Map<String, Object>> get(List<String> key, Supplier<Mono<Map<String, Object>>> issuer) {
+        return Mono.defer(() -> {
+            AtomicBoolean issued = new AtomicBoolean();
+            CompletableFuture<Map<String, Object>> pending = new CompletableFuture<>();
+            CompletableFuture<Map<String, Object>> future = cache.get(key, (k, executor) -> {
+                issued.set(true);
+                return pending;
+            });
+            if (issued.get()) {
+                //the mapping function runs within the lock of the cache, a blocking call to the OP must not
+                subscribe(issuer, pending);
+            }
+            return Mono.fromFuture(future).map(response -> {
+                Map<String, Object> result = new HashMap<>(response);
+                result.put("cached", !issued.get());
+                return result;
+            });
+        });
+    }
+
+    private static void subscribe(Supplier<Mono<Map<String, Object>>> issuer, CompletableFuture<Map<String, Object>> pending) {
+        try {
+            issuer.get().subscribe(pending::complete, pending::completeExceptionally,
+                    () -> pending.complete(null));
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Always calls the OP and replaces the cached response for the key, also when the call fails.
+     */
+    protected Mono<Map<String, Object>> refresh(List<String> key, Supplier<Mono<Map<String, Object>>> issuer) {
+        return Mono.defer(() -> {
+            CompletableFuture<Map<String, Object>> future = issuer.get().toFuture();
+            cache.put(key, future);
+            return Mono.fromFuture(future).map(response -> {
+                Map<String, Object> result = new HashMap<>(response);
+                result.put("cached", false);
+                return result;
+            });
+        });
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.synchronous().stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("eviction_weight", stats.evictionWeight());
+        return result;
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    long size() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().estimatedSize();
+    }
+
+    protected static String hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static Map<String, Object> result(Map<String, Object> response) {
+        Object result = response.get("result");
+        return result instanceof Map ? (Map<String, Object>) result : null;
+    }
+}
@@ -0,0 +1,48 @@
+package playground.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in cache for client_credentials tokens, keyed by the token endpoint, client, secret, scopes and authentication
+ * method, "none" when the authentication is omitted. A token is evicted expiry_skew_seconds before its expires_in and tokens without expires_in are not kept.
+ */
+@Component
+public class TokenCache extends ResponseCache {
+
+    private final long skewNanos;
+
+    public TokenCache(@Value("${oidc.token_cache.enabled}") boolean enabled,
+                      @Value("${oidc.token_cache.max_size}") long maxSize,
+                      @Value("${oidc.token_cache.expiry_skew_seconds}") long expirySkewSeconds) {
+        super("client_credentials_tokens", enabled, Caffeine.newBuilder().maximumSize(maxSize));
+        this.skewNanos = TimeUnit.SECONDS.toNanos(expirySkewSeconds);
+    }
+
+    public Mono<Map<String, Object>> get(String endpoint, String clientId, String secret, List<String> scopes,
+                                         String authMethod, Supplier<Mono<Map<String, Object>>> issuer) {
+        String scope = (scopes == null ? Collections.<String>emptyList() : scopes).stream()
+                .sorted().distinct().reduce((a, b) -> a + " " + b).orElse("");
+        //the secret is part of the key, otherwise a wrong secret would get the token of the real client
+        return get(Arrays.asList(endpoint, clientId, hash(secret), scope, authMethod), issuer);
+    }
+
+    @Override
+    protected long timeToLiveNanos(Map<String, Object> response) {
+        Map<String, Object> result = result(response);
+        Object expiresIn = result != null ? result.get("expires_in") : null;
+        if (!(expiresIn instanceof Number)) {
+            return 0L;
+        }
+        return TimeUnit.SECONDS.toNanos(((Number) expiresIn).longValue()) - skewNanos;
+    }
+}
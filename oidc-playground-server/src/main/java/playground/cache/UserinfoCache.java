@@ -0,0 +1,52 @@
+package playground.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import net.minidev.json.JSONValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache of userinfo responses, keyed by the endpoint and the hash of the access token. Userinfo responses with large
+ * group claims vary a lot in size, so the cache is bounded by the bytes of the JSON of the responses and not by the
+ * number of entries. Responses are kept for ttl_seconds.
+ */
+@Component
+public class UserinfoCache extends ResponseCache {
+
+    private final long ttlNanos;
+
+    public UserinfoCache(@Value("${oidc.userinfo_cache.enabled}") boolean enabled,
+                         @Value("${oidc.userinfo_cache.max_bytes}") long maxBytes,
+                         @Value("${oidc.userinfo_cache.ttl_seconds}") long ttlSeconds) {
+        super("userinfo", enabled, Caffeine.newBuilder().maximumWeight(maxBytes).weigher(UserinfoCache::weigh));
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    public Mono<Map<String, Object>> get(String endpoint, String token, boolean bypass,
+                                         Supplier<Mono<Map<String, Object>>> issuer) {
+        List<String> key = Arrays.asList(endpoint, hash(token));
+        return bypass ? refresh(key, issuer) : get(key, issuer);
+    }
+
+    @Override
+    protected long timeToLiveNanos(Map<String, Object> response) {
+        return result(response) == null ? 0L : ttlNanos;
+    }
+
+    /**
+     * The length of the JSON of the userinfo result, the request details in the envelope are small and about the same
+     * for every entry.
+     */
+    @SuppressWarnings("unchecked")
+    static int weigh(Object key, Object value) {
+        Map<String, Object> result = result((Map<String, Object>) value);
+        return result == null ? 1 : Math.max(1, JSONValue.toJSONString(result).length());
+    }
+}
@@ -0,0 +1,156 @@
+package playground.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+import playground.cache.DiscoveryCache;
+import playground.provider.Provider;
+import playground.provider.ProviderRegistry;
+
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The public keys of each OP indexed by kid, with a verifier for each key. The jwks_uri of the OP is fetched again
+ * when its keys are older than the TTL or when a token is signed with an unknown kid, but never more often than the
+ * minimum refresh interval.
+ */
+@Component
+public class JwksCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JwksCache.class);
+
+    private static final String NO_KID = "";
+
+    private final ProviderRegistry providerRegistry;
+    private final RestTemplate restTemplate;
+    private final long ttlMillis;
+    private final long minRefreshIntervalMillis;
+
+    private final Map<String, ProviderKeys> providerKeys = new ConcurrentHashMap<>();
+
+    public JwksCache(ProviderRegistry providerRegistry,
+                     RestTemplate restTemplate,
+                     @Value("${oidc.jwks.ttl_seconds}") long ttlSeconds,
+                     @Value("${oidc.jwks.min_refresh_interval_seconds}") long minRefreshIntervalSeconds) {
+        this.providerRegistry = providerRegistry;
+        this.restTemplate = restTemplate;
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.minRefreshIntervalMillis = TimeUnit.SECONDS.toMillis(minRefreshIntervalSeconds);
+    }
+
+    /**
+     * Returns null if the OP has no (supported) key with this kid
+     */
+    public JWSVerifier verifier(String provider, String kid) {
+        Provider op = providerRegistry.get(provider);
+        return providerKeys.computeIfAbsent(op.getId(), id -> new ProviderKeys(op.getDiscoveryCache())).verifier(kid);
+    }
+
+    private class ProviderKeys {
+
+        private final DiscoveryCache discoveryCache;
+
+        private volatile Keys keys;
+
+        private long lastAttempt;
+
+        private ProviderKeys(DiscoveryCache discoveryCache) {
+            this.discoveryCache = discoveryCache;
+        }
+
+        private JWSVerifier verifier(String kid) {
+            String key = StringUtils.hasText(kid) ? kid : NO_KID;
+            Keys current = keys;
+            if (current == null || current.fetchedAt + ttlMillis < System.currentTimeMillis()) {
+                current = refresh();
+            }
+            JWSVerifier verifier = current.verifier(key);
+            if (verifier == null) {
+                verifier = refresh().verifier(key);
+            }
+            return verifier;
+        }
+
+        private synchronized Keys refresh() {
+            long now = System.currentTimeMillis();
+            if (now - lastAttempt < minRefreshIntervalMillis) {
+                return keys != null ? keys : Keys.EMPTY;
+            }
+            lastAttempt = now;
+            String jwksUri = (String) discoveryCache.get().get("jwks_uri");
+            try {
+                JWKSet jwkSet = JWKSet.parse(restTemplate.getForObject(jwksUri, String.class));
+                keys = new Keys(jwkSet, keys != null ? keys : Keys.EMPTY, now);
+                LOG.debug("Fetched {} keys from {}", jwkSet.getKeys().size(), jwksUri);
+            } catch (ParseException | RuntimeException e) {
+                LOG.warn("Unable to fetch the keys from {}", jwksUri, e);
+            }
+            return keys != null ? keys : Keys.EMPTY;
+        }
+    }
+
+    private static class Keys {
+
+        private static final Keys EMPTY = new Keys();
+
+        private final Map<String, JWK> jwks = new HashMap<>();
+        private final Map<String, JWSVerifier> verifiers = new HashMap<>();
+        private final long fetchedAt;
+
+        private Keys() {
+            this.fetchedAt = 0L;
+        }
+
+        private Keys(JWKSet jwkSet, Keys previous, long fetchedAt) {
+            this.fetchedAt = fetchedAt;
+            jwkSet.getKeys().forEach(jwk -> {
+                String kid = StringUtils.hasText(jwk.getKeyID()) ? jwk.getKeyID() : NO_KID;
+                JWK previousJwk = previous.jwks.get(kid);
+                JWSVerifier verifier = previousJwk != null && previousJwk.toJSONObject().equals(jwk.toJSONObject()) ?
+                        previous.verifiers.get(kid) : verifier(jwk);
+                if (verifier != null) {
+                    jwks.put(kid, jwk);
+                    verifiers.put(kid, verifier);
+                }
+            });
+        }
+
+        private JWSVerifier verifier(String kid) {
+            JWSVerifier verifier = verifiers.get(kid);
+            //tokens without a kid can only be matched when the OP publishes exactly one key
+            if (verifier == null && kid.equals(NO_KID) && verifiers.size() == 1) {
+                return verifiers.values().iterator().next();
+            }
+            return verifier;
+        }
+
+        private static JWSVerifier verifier(JWK jwk) {
+            try {
+                if (jwk instanceof RSAKey) {
+                    return new RSASSAVerifier((RSAKey) jwk);
+                }
+                if (jwk instanceof ECKey) {
+                    return new ECDSAVerifier((ECKey) jwk);
+                }
+            } catch (JOSEException e) {
+                LOG.warn("Unsupported key {}", jwk.getKeyID(), e);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package playground.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.util.OrderedJSONObject;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.minidev.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import playground.cache.FlushableCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decodes the header and payload of a JWT to JSON. The result is cached by the SHA-256 hash of the token, so the
+ * client can decode the same tokens over and over during a session without parsing them again. The tokens come from
+ * unauthenticated requests, so the cache is bounded by the total length of the decoded JSON, not by the number of
+ * tokens.
+ */
+@Component
+public class JwtDecoder implements FlushableCache {
+
+    private final Cache<String, String> cache;
+
+    public JwtDecoder(@Value("${oidc.decode_cache.max_bytes}") long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, String>weigher(JwtDecoder::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(Metrics.globalRegistry, cache, name());
+    }
+
+    /**
+     * A compact JWS starts with the base64url encoded '{"' of the header and has exactly two dots. Everything else,
+     * like the UUID access tokens of the OP, is opaque.
+     */
+    public static boolean isJwt(String token) {
+        if (token == null || !token.startsWith("ey")) {
+            return false;
+        }
+        int first = token.indexOf('.');
+        if (first == -1) {
+            return false;
+        }
+        int second = token.indexOf('.', first + 1);
+        return second != -1 && token.indexOf('.', second + 1) == -1;
+    }
+
+    public String decode(String token) throws ParseException {
+        String key = hash(token);
+        String json = cache.getIfPresent(key);
+        if (json == null) {
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            JSONObject result = new OrderedJSONObject();
+            result.put("header", signedJWT.getHeader().toJSONObject());
+            result.put("payload", signedJWT.getJWTClaimsSet().toJSONObject());
+            json = result.toJSONString();
+            cache.put(key, json);
+        }
+        return json;
+    }
+
+    @Override
+    public String name() {
+        return "jwt_decode";
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", true);
+        result.put("size", size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("eviction_weight", stats.evictionWeight());
+        return result;
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    static int weigh(String key, String json) {
+        return key.length() + json.length();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
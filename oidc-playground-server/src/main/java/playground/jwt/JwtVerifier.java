@@ -0,0 +1,107 @@
+package playground.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.AuthorizationCode;
+import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import com.nimbusds.openid.connect.sdk.claims.AccessTokenHash;
+import com.nimbusds.openid.connect.sdk.claims.CodeHash;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import playground.provider.ProviderRegistry;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies the signature and the claims of id_tokens and JWT access tokens against the keys and the issuer of the OP
+ * that issued them.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwksCache jwksCache;
+    private final ProviderRegistry providerRegistry;
+    private final long clockSkewMillis;
+
+    public JwtVerifier(JwksCache jwksCache,
+                       ProviderRegistry providerRegistry,
+                       @Value("${oidc.clock_skew_seconds}") long clockSkewSeconds) {
+        this.jwksCache = jwksCache;
+        this.providerRegistry = providerRegistry;
+        this.clockSkewMillis = TimeUnit.SECONDS.toMillis(clockSkewSeconds);
+    }
+
+    /**
+     * The provider is the id of the OP, null for the default OP. The nonce, access token and code are optional, the
+     * corresponding claims are only checked when present
+     */
+    public Map<String, Object> verify(String provider, SignedJWT signedJWT, String audience, String nonce,
+                                      String accessToken, String code) {
+        long start = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        try {
+            String kid = signedJWT.getHeader().getKeyID();
+            JWSVerifier verifier = jwksCache.verifier(provider, kid);
+            if (verifier == null) {
+                errors.add(String.format("No key with kid %s published by the OP", kid));
+            } else if (!signedJWT.verify(verifier)) {
+                errors.add("Invalid signature");
+            }
+            Object issuer = providerRegistry.get(provider).getDiscoveryCache().get().get("issuer");
+            verifyClaims(signedJWT.getJWTClaimsSet(), signedJWT.getHeader().getAlgorithm(), issuer, audience, nonce,
+                    accessToken, code, errors);
+        } catch (ParseException | JOSEException | RuntimeException e) {
+            errors.add(e.getMessage());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("valid", errors.isEmpty());
+        result.put("errors", errors);
+        result.put("duration_micros", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return result;
+    }
+
+    private void verifyClaims(JWTClaimsSet claims, JWSAlgorithm algorithm, Object issuer, String audience,
+                              String nonce, String accessToken, String code, List<String> errors) throws ParseException {
+        if (issuer != null && !issuer.equals(claims.getIssuer())) {
+            errors.add(String.format("Issuer %s does not match %s", claims.getIssuer(), issuer));
+        }
+        if (StringUtils.hasText(audience) && (claims.getAudience() == null || !claims.getAudience().contains(audience))) {
+            errors.add(String.format("Audience %s does not contain %s", claims.getAudience(), audience));
+        }
+        Date expirationTime = claims.getExpirationTime();
+        if (expirationTime == null) {
+            errors.add("Missing exp claim");
+        } else if (expirationTime.getTime() + clockSkewMillis < System.currentTimeMillis()) {
+            errors.add(String.format("Expired at %s", expirationTime.toInstant()));
+        }
+        if (StringUtils.hasText(nonce) && !nonce.equals(claims.getStringClaim("nonce"))) {
+            errors.add(String.format("Nonce %s does not match %s", claims.getStringClaim("nonce"), nonce));
+        }
+        if (StringUtils.hasText(accessToken)) {
+            AccessTokenHash expected = AccessTokenHash.compute(algorithm, new BearerAccessToken(accessToken));
+            verifyHash("at_hash", claims.getStringClaim("at_hash"), expected != null ? expected.getValue() : null, errors);
+        }
+        if (StringUtils.hasText(code)) {
+            CodeHash expected = CodeHash.compute(algorithm, new AuthorizationCode(code));
+            verifyHash("c_hash", claims.getStringClaim("c_hash"), expected != null ? expected.getValue() : null, errors);
+        }
+    }
+
+    private void verifyHash(String claim, String actual, String expected, List<String> errors) {
+        if (actual == null) {
+            errors.add(String.format("Missing %s claim", claim));
+        } else if (!actual.equals(expected)) {
+            errors.add(String.format("%s %s does not match the computed value %s", claim, actual, expected));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package playground.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.Ed25519Signer;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signs request objects with the active key of the requested algorithm. The signers and headers are created once per
+ * key and reused, the nimbus signers are thread-safe. After a key rotation the signer of the old key is discarded.
+ */
+@Component
+public class RequestObjectSigner {
+
+    private final SigningKeys signingKeys;
+
+    private final Map<JWK, Signer> signers = new ConcurrentHashMap<>();
+
+    public RequestObjectSigner(SigningKeys signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    public Signed sign(JWTClaimsSet claimsSet, JWSAlgorithm algorithm) throws JOSEException {
+        long start = System.nanoTime();
+        JWK key = signingKeys.activeKey(algorithm);
+        Signer signer = signers.get(key);
+        if (signer == null) {
+            signer = signer(key, algorithm);
+            signers.values().removeIf(cached -> cached.header.getAlgorithm().equals(algorithm));
+            signers.put(key, signer);
+        }
+        SignedJWT signedJWT = new SignedJWT(signer.header, claimsSet);
+        signedJWT.sign(signer.jwsSigner);
+        long duration = System.nanoTime() - start;
+        Metrics.timer("oidc.jwt.sign", "algorithm", algorithm.getName()).record(duration, TimeUnit.NANOSECONDS);
+        return new Signed(signedJWT, TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    int cachedSigners() {
+        return signers.size();
+    }
+
+    private Signer signer(JWK key, JWSAlgorithm algorithm) throws JOSEException {
+        JWSSigner jwsSigner;
+        if (key instanceof RSAKey) {
+            jwsSigner = new RSASSASigner((RSAKey) key);
+        } else if (key instanceof ECKey) {
+            jwsSigner = new ECDSASigner((ECKey) key);
+        } else if (key instanceof OctetKeyPair) {
+            jwsSigner = new Ed25519Signer((OctetKeyPair) key);
+        } else {
+            throw new JOSEException(String.format("Unsupported key type %s for %s", key.getKeyType(), algorithm));
+        }
+        JWSHeader header = new JWSHeader.Builder(algorithm).type(JOSEObjectType.JWT).keyID(key.getKeyID()).build();
+        return new Signer(jwsSigner, header);
+    }
+
+    public static class Signed {
+
+        private final SignedJWT signedJWT;
+        private final long durationMicros;
+
+        private Signed(SignedJWT signedJWT, long durationMicros) {
+            this.signedJWT = signedJWT;
+            this.durationMicros = durationMicros;
+        }
+
+        public SignedJWT getSignedJWT() {
+            return signedJWT;
+        }
+
+        public long getDurationMicros() {
+            return durationMicros;
+        }
+    }
+
+    private static class Signer {
+
+        private final JWSSigner jwsSigner;
+        private final JWSHeader header;
+
+        private Signer(JWSSigner jwsSigner, JWSHeader header) {
+            this.jwsSigner = jwsSigner;
+            this.header = header;
+        }
+    }
+}
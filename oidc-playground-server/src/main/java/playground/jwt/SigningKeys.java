@@ -0,0 +1,234 @@
+package playground.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import playground.web.CachedBody;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The keys used to sign request objects, one set for each supported algorithm. Keys are loaded from a PKCS#12
+ * keystore or a JWK set file when configured, otherwise they are generated in the background so the startup does not
+ * wait for it.
+ * <p>
+ * For each algorithm there is an active key used for signing and a next key that becomes active on rotation. Both are
+ * published, so the OP already knows the next key before it is used.
+ */
+@Component
+public class SigningKeys {
+
+    public static final List<JWSAlgorithm> algorithms =
+            Collections.unmodifiableList(Arrays.asList(JWSAlgorithm.RS256, JWSAlgorithm.ES256, JWSAlgorithm.EdDSA));
+
+    private static final Logger LOG = LoggerFactory.getLogger(SigningKeys.class);
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "signing-keys");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<JWSAlgorithm, List<JWK>> configuredKeys;
+
+    /**
+     * Replaced as a whole on rotation, so request threads always see a complete and immutable map
+     */
+    private volatile Map<JWSAlgorithm, CompletableFuture<KeyRing>> keyRings;
+
+    private volatile CachedBody publicKeySet;
+
+    public SigningKeys(ResourceLoader resourceLoader,
+                       @Value("${oidc.signing.keystore}") String keystore,
+                       @Value("${oidc.signing.keystore_password}") String keystorePassword,
+                       @Value("${oidc.signing.jwks}") String jwks,
+                       @Value("${oidc.signing.rotation_hours}") long rotationHours) throws IOException, GeneralSecurityException, ParseException {
+        this.configuredKeys = loadKeys(resourceLoader, keystore, keystorePassword, jwks);
+        Map<JWSAlgorithm, CompletableFuture<KeyRing>> keyRings = new LinkedHashMap<>();
+        algorithms.forEach(algorithm -> {
+            List<JWK> keys = configuredKeys.get(algorithm);
+            if (keys == null) {
+                keyRings.put(algorithm, CompletableFuture.supplyAsync(() ->
+                        new KeyRing(generate(algorithm), generate(algorithm)), executor));
+            } else {
+                JWK next = keys.size() > 1 ? keys.get(1) : null;
+                keyRings.put(algorithm, CompletableFuture.completedFuture(new KeyRing(keys.get(0), next)));
+            }
+        });
+        this.keyRings = Collections.unmodifiableMap(keyRings);
+        if (rotationHours > 0) {
+            executor.scheduleAtFixedRate(this::rotate, rotationHours, rotationHours, TimeUnit.HOURS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Waits for the generation of the keys, but only if this is called before they are ready
+     */
+    public JWK activeKey(JWSAlgorithm algorithm) {
+        CompletableFuture<KeyRing> keyRing = keyRings.get(algorithm);
+        if (keyRing == null) {
+            throw new IllegalArgumentException(String.format("Unsupported signing algorithm %s, supported are %s",
+                    algorithm, algorithms));
+        }
+        return keyRing.join().active;
+    }
+
+    public List<JWK> publicKeys() {
+        List<JWK> result = new ArrayList<>();
+        keyRings.values().forEach(keyRing -> {
+            KeyRing current = keyRing.join();
+            result.add(current.active.toPublicJWK());
+            if (current.next != null) {
+                result.add(current.next.toPublicJWK());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The serialized JWK set of {@link #publicKeys()}, computed once per rotation.
+     */
+    public CachedBody publicKeySet() {
+        CachedBody result = publicKeySet;
+        if (result == null) {
+            synchronized (this) {
+                result = publicKeySet;
+                if (result == null) {
+                    byte[] json = new JWKSet(publicKeys()).toJSONObject().toString().getBytes(StandardCharsets.UTF_8);
+                    result = new CachedBody(json, MediaType.APPLICATION_JSON_UTF8);
+                    publicKeySet = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    synchronized void rotate() {
+        Map<JWSAlgorithm, CompletableFuture<KeyRing>> rotated = new LinkedHashMap<>(keyRings);
+        rotated.replaceAll((algorithm, keyRing) -> {
+            KeyRing current = keyRing.join();
+            List<JWK> keys = configuredKeys.get(algorithm);
+            JWK next;
+            if (keys == null) {
+                next = generate(algorithm);
+            } else if (current.next != null) {
+                next = keys.get((keys.indexOf(current.next) + 1) % keys.size());
+            } else {
+                return keyRing;
+            }
+            JWK active = current.next != null ? current.next : current.active;
+            LOG.info("Rotated {} signing keys, active key is {}, next key is {}", algorithm, active.getKeyID(), next.getKeyID());
+            return CompletableFuture.completedFuture(new KeyRing(active, next));
+        });
+        keyRings = Collections.unmodifiableMap(rotated);
+        publicKeySet = null;
+    }
+
+    private JWK generate(JWSAlgorithm algorithm) {
+        String keyID = "play_key_" + UUID.randomUUID().toString().substring(0, 8);
+        try {
+            if (JWSAlgorithm.ES256.equals(algorithm)) {
+                return new ECKeyGenerator(Curve.P_256).algorithm(algorithm).keyID(keyID).generate();
+            }
+            if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+                return new OctetKeyPairGenerator(Curve.Ed25519).algorithm(algorithm).keyID(keyID).generate();
+            }
+            return new RSAKeyGenerator(2048).algorithm(algorithm).keyID(keyID).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Map<JWSAlgorithm, List<JWK>> loadKeys(ResourceLoader resourceLoader, String keystore,
+                                                         String keystorePassword, String jwks)
+            throws IOException, GeneralSecurityException, ParseException {
+        JWKSet jwkSet;
+        if (StringUtils.hasText(keystore)) {
+            char[] password = keystorePassword.toCharArray();
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            try (InputStream inputStream = resourceLoader.getResource(keystore).getInputStream()) {
+                keyStore.load(inputStream, password);
+            }
+            jwkSet = JWKSet.load(keyStore, name -> password);
+        } else if (StringUtils.hasText(jwks)) {
+            try (InputStream inputStream = resourceLoader.getResource(jwks).getInputStream()) {
+                jwkSet = JWKSet.load(inputStream);
+            }
+        } else {
+            return Collections.emptyMap();
+        }
+        Map<JWSAlgorithm, List<JWK>> keys = jwkSet.getKeys().stream()
+                .filter(JWK::isPrivate)
+                .filter(jwk -> algorithm(jwk) != null)
+                .collect(Collectors.groupingBy(SigningKeys::algorithm, LinkedHashMap::new, Collectors.toList()));
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException(String.format("No supported private keys in %s",
+                    StringUtils.hasText(keystore) ? keystore : jwks));
+        }
+        keys.forEach((algorithm, jwkList) -> LOG.info("Loaded {} signing keys {}", algorithm,
+                jwkList.stream().map(JWK::getKeyID).collect(Collectors.toList())));
+        return keys;
+    }
+
+    private static JWSAlgorithm algorithm(JWK jwk) {
+        if (jwk instanceof RSAKey) {
+            return JWSAlgorithm.RS256;
+        }
+        if (jwk instanceof ECKey && Curve.P_256.equals(((ECKey) jwk).getCurve())) {
+            return JWSAlgorithm.ES256;
+        }
+        if (jwk instanceof OctetKeyPair && Curve.Ed25519.equals(((OctetKeyPair) jwk).getCurve())) {
+            return JWSAlgorithm.EdDSA;
+        }
+        return null;
+    }
+
+    private static class KeyRing {
+
+        private final JWK active;
+        private final JWK next;
+
+        private KeyRing(JWK active, JWK next) {
+            this.active = active;
+            this.next = next;
+        }
+    }
+}
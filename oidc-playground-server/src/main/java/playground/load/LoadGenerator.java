@@ -0,0 +1,54 @@
+package playground.load;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import playground.provider.ProviderRegistry;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Runs one load test at a time against the API of this server. The OP is only selected by the id of a configured
+ * provider, so the endpoint can not be used to send traffic, let alone the client secrets, to other hosts.
+ */
+@Component
+public class LoadGenerator {
+
+    private final Environment environment;
+    private final ProviderRegistry providerRegistry;
+
+    private LoadRun current;
+
+    public LoadGenerator(Environment environment, ProviderRegistry providerRegistry) {
+        this.environment = environment;
+        this.providerRegistry = providerRegistry;
+    }
+
+    public synchronized Map<String, Object> start(LoadSettings settings) {
+        //fails for an unknown provider
+        providerRegistry.get(settings.getProvider());
+        if (current != null && current.isRunning()) {
+            throw new IllegalStateException("A load test is already running");
+        }
+        current = new LoadRun(settings, localBaseUrl());
+        current.start();
+        return current.report();
+    }
+
+    public synchronized Map<String, Object> report() {
+        return current == null ? Collections.singletonMap("state", "idle") : current.report();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (current != null) {
+            current.stop();
+        }
+    }
+
+    private String localBaseUrl() {
+        String port = environment.getProperty("local.server.port", environment.getProperty("server.port", "8080"));
+        return "http://localhost:" + port + environment.getProperty("server.servlet.context-path", "");
+    }
+}
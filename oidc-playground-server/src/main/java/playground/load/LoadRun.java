@@ -0,0 +1,244 @@
+package playground.load;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single load test. The workers call the playground API over HTTP with their own connection pool, so the calls
+ * include the whole servlet stack and do not compete with the pool for the OP.
+ * <p>
+ * With a fixed rate every call has a scheduled start and the latency is measured from that moment, so a stalled server
+ * shows up in the percentiles instead of silently lowering the rate.
+ */
+class LoadRun {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadRun.class);
+
+    private static final double[] percentiles = {0.5, 0.95, 0.99};
+
+    private final LoadSettings settings;
+    private final String baseUrl;
+    private final CloseableHttpClient httpClient;
+    private final RestTemplate restTemplate;
+    private final ExecutorService workers;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Timer total;
+    private final Map<String, Timer> timers = new HashMap<>();
+    private final Map<String, Map<String, LongAdder>> errors = new HashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong nextStart = new AtomicLong();
+    private final long intervalNanos;
+
+    private volatile boolean stopped;
+    private volatile long startedAt;
+    private volatile long startNanos;
+    private volatile long deadline;
+    private volatile long elapsedNanos = -1;
+
+    LoadRun(LoadSettings settings, String baseUrl) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClients.custom()
+                .setMaxConnTotal(settings.getConcurrency())
+                .setMaxConnPerRoute(settings.getConcurrency())
+                .build();
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(settings.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "load-test-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.intervalNanos = settings.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / settings.getRate() : 0L;
+        this.total = timer("all");
+        settings.getFlows().forEach(flow -> {
+            timers.put(flow, timer(flow));
+            errors.put(flow, new ConcurrentHashMap<>());
+        });
+    }
+
+    private Timer timer(String flow) {
+        //no decay of the percentiles during the run
+        return Timer.builder("oidc.load_test")
+                .tag("flow", flow)
+                .publishPercentiles(percentiles)
+                .distributionStatisticExpiry(Duration.ofSeconds(settings.getDurationSeconds() + 60L))
+                .distributionStatisticBufferLength(1)
+                .register(registry);
+    }
+
+    void start() {
+        startedAt = System.currentTimeMillis();
+        long start = System.nanoTime();
+        startNanos = start;
+        nextStart.set(start);
+        deadline = start + TimeUnit.SECONDS.toNanos(settings.getDurationSeconds());
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[settings.getConcurrency()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(this::work, workers);
+        }
+        CompletableFuture.allOf(futures).whenComplete((result, throwable) -> {
+            elapsedNanos = System.nanoTime() - start;
+            workers.shutdown();
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                LOG.warn("Unable to close the load test client", e);
+            }
+            if (throwable != null) {
+                LOG.error("Load test failed", throwable);
+            }
+            LOG.info("Load test finished: {}", report());
+        });
+    }
+
+    void stop() {
+        stopped = true;
+    }
+
+    boolean isRunning() {
+        return elapsedNanos < 0;
+    }
+
+    private void work() {
+        while (!stopped) {
+            long scheduled = System.nanoTime();
+            if (intervalNanos > 0) {
+                scheduled = nextStart.getAndAdd(intervalNanos);
+                if (scheduled >= deadline) {
+                    return;
+                }
+                long wait;
+                while (!stopped && (wait = scheduled - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            } else if (scheduled >= deadline) {
+                return;
+            }
+            long n = sequence.getAndIncrement();
+            String flow = settings.getFlows().get((int) (n % settings.getFlows().size()));
+            String error = call(flow, n);
+            long latency = System.nanoTime() - scheduled;
+            timers.get(flow).record(latency, TimeUnit.NANOSECONDS);
+            total.record(latency, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                errors.get(flow).computeIfAbsent(error, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private String call(String flow, long n) {
+        try {
+            restTemplate.postForEntity(baseUrl + path(flow), body(flow, n), String.class);
+            return null;
+        } catch (HttpStatusCodeException e) {
+            return "status_" + e.getRawStatusCode();
+        } catch (ResourceAccessException e) {
+            return "io_error";
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    private String path(String flow) {
+        switch (flow) {
+            case "authorization_code":
+                return "/token";
+            default:
+                return "/" + flow;
+        }
+    }
+
+    private Map<String, Object> body(String flow, long n) {
+        Map<String, Object> body = new HashMap<>();
+        if (settings.getProvider() != null) {
+            body.put("provider", settings.getProvider());
+        }
+        switch (flow) {
+            case "authorization_code":
+                body.put("code", "load-test-code-" + n);
+                break;
+            case "refresh_token":
+                body.put("refresh_token", "load-test-refresh-token-" + n);
+                break;
+            case "client_credentials":
+                body.put("scope", Collections.singletonList("openid"));
+                break;
+            case "introspect":
+                //a new token for every call, otherwise the introspection cache answers
+                body.put("token", "load-test-token-" + n);
+                break;
+            default:
+                throw new IllegalArgumentException(flow);
+        }
+        return body;
+    }
+
+    Map<String, Object> report() {
+        long elapsed = isRunning() ? System.nanoTime() - startNanos : elapsedNanos;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", isRunning() ? "running" : stopped ? "stopped" : "finished");
+        result.put("started_at", startedAt);
+        result.put("flows", settings.getFlows());
+        result.put("rate", settings.getRate());
+        result.put("concurrency", settings.getConcurrency());
+        result.put("duration_seconds", settings.getDurationSeconds());
+        result.put("elapsed_millis", TimeUnit.NANOSECONDS.toMillis(elapsed));
+        result.put("requests", total.count());
+        result.put("errors", errors.values().stream().flatMap(map -> map.values().stream()).mapToLong(LongAdder::sum).sum());
+        result.put("throughput_per_second", elapsed > 0 ? total.count() * 1e9 / elapsed : 0D);
+        result.put("latency_millis", latency(total));
+        Map<String, Object> flows = new TreeMap<>();
+        timers.forEach((flow, timer) -> {
+            Map<String, Object> flowResult = new LinkedHashMap<>();
+            flowResult.put("requests", timer.count());
+            Map<String, Long> flowErrors = new TreeMap<>();
+            errors.get(flow).forEach((error, count) -> flowErrors.put(error, count.sum()));
+            flowResult.put("errors", flowErrors);
+            flowResult.put("latency_millis", latency(timer));
+            flows.put(flow, flowResult);
+        });
+        result.put("per_flow", flows);
+        return result;
+    }
+
+    private Map<String, Object> latency(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (ValueAtPercentile value : snapshot.percentileValues()) {
+            result.put("p" + Math.round(value.percentile() * 100), value.value(TimeUnit.MILLISECONDS));
+        }
+        result.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        result.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        return result;
+    }
+}
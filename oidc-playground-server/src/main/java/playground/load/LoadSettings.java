@@ -0,0 +1,61 @@
+package playground.load;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Settings of a load test. The flows are called round-robin by concurrency workers, a rate of 0 means as fast as the
+ * workers can go. The OP is always one of the configured providers, the default one when none is given.
+ */
+public class LoadSettings {
+
+    static final List<String> supportedFlows = Collections.unmodifiableList(
+            Arrays.asList("authorization_code", "refresh_token", "client_credentials", "introspect"));
+
+    private final List<String> flows;
+    private final int rate;
+    private final int concurrency;
+    private final int durationSeconds;
+    private final String provider;
+
+    public LoadSettings(List<String> flows, int rate, int concurrency, int durationSeconds, String provider) {
+        if (flows.isEmpty() || !supportedFlows.containsAll(flows)) {
+            throw new IllegalArgumentException(String.format("Flows must be one or more of %s", supportedFlows));
+        }
+        if (rate < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        if (concurrency < 1 || concurrency > 1000) {
+            throw new IllegalArgumentException("Concurrency must be between 1 and 1000");
+        }
+        if (durationSeconds < 1 || durationSeconds > 3600) {
+            throw new IllegalArgumentException("Duration must be between 1 and 3600 seconds");
+        }
+        this.flows = Collections.unmodifiableList(flows);
+        this.rate = rate;
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+        this.provider = provider;
+    }
+
+    public List<String> getFlows() {
+        return flows;
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
@@ -0,0 +1,75 @@
+package playground.load;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import playground.provider.ProviderException;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * POST starts a load test, GET returns the report of the running or last load test and DELETE stops it. The flows are
+ * comma separated, omitted parameters fall back to oidc.load_test.
+ */
+@Component
+@Endpoint(id = "loadtest")
+public class LoadTestEndpoint {
+
+    private final LoadGenerator loadGenerator;
+    private final String flows;
+    private final int rate;
+    private final int concurrency;
+    private final int durationSeconds;
+
+    public LoadTestEndpoint(LoadGenerator loadGenerator,
+                            @Value("${oidc.load_test.flows}") String flows,
+                            @Value("${oidc.load_test.rate}") int rate,
+                            @Value("${oidc.load_test.concurrency}") int concurrency,
+                            @Value("${oidc.load_test.duration_seconds}") int durationSeconds) {
+        this.loadGenerator = loadGenerator;
+        this.flows = flows;
+        this.rate = rate;
+        this.concurrency = concurrency;
+        this.durationSeconds = durationSeconds;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return loadGenerator.report();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(@Nullable String flows, @Nullable Integer rate, @Nullable Integer concurrency,
+                                     @Nullable Integer durationSeconds, @Nullable String provider) {
+        LoadSettings settings;
+        try {
+            settings = new LoadSettings(
+                    Arrays.asList(StringUtils.commaDelimitedListToStringArray(
+                            StringUtils.trimAllWhitespace(flows != null ? flows : this.flows))),
+                    rate != null ? rate : this.rate,
+                    concurrency != null ? concurrency : this.concurrency,
+                    durationSeconds != null ? durationSeconds : this.durationSeconds,
+                    provider);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        try {
+            return loadGenerator.start(settings);
+        } catch (IllegalStateException | ProviderException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public Map<String, Object> stop() {
+        loadGenerator.stop();
+        return loadGenerator.report();
+    }
+}
@@ -0,0 +1,34 @@
+package playground.pkce;
+
+import com.nimbusds.oauth2.sdk.pkce.CodeChallenge;
+import com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod;
+import com.nimbusds.oauth2.sdk.pkce.CodeVerifier;
+
+public class Pkce {
+
+    private final CodeVerifier codeVerifier;
+    private final CodeChallenge codeChallenge;
+    private final CodeChallengeMethod codeChallengeMethod;
+
+    Pkce(CodeVerifier codeVerifier, CodeChallenge codeChallenge, CodeChallengeMethod codeChallengeMethod) {
+        this.codeVerifier = codeVerifier;
+        this.codeChallenge = codeChallenge;
+        this.codeChallengeMethod = codeChallengeMethod;
+    }
+
+    public static Pkce compute(CodeVerifier codeVerifier, CodeChallengeMethod codeChallengeMethod) {
+        return new Pkce(codeVerifier, CodeChallenge.compute(codeChallengeMethod, codeVerifier), codeChallengeMethod);
+    }
+
+    public CodeVerifier getCodeVerifier() {
+        return codeVerifier;
+    }
+
+    public CodeChallenge getCodeChallenge() {
+        return codeChallenge;
+    }
+
+    public CodeChallengeMethod getCodeChallengeMethod() {
+        return codeChallengeMethod;
+    }
+}
@@ -0,0 +1,89 @@
+package playground.pkce;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod;
+import com.nimbusds.oauth2.sdk.pkce.CodeVerifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Code verifiers with their S256 challenge, generated ahead by a background thread that keeps the pool full. When the
+ * pool is empty the verifier is generated on the calling thread. Every thread has its own SecureRandom, so concurrent
+ * requests do not contend on one instance.
+ */
+@Component
+public class PkcePool {
+
+    private static final int RANDOM_BYTES = 32;
+
+    private static final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(SecureRandom::new);
+
+    private final BlockingQueue<Pkce> pool;
+    private final Thread filler;
+
+    private final Counter hits = Metrics.counter("oidc.pkce.pool", "result", "hit");
+    private final Counter misses = Metrics.counter("oidc.pkce.pool", "result", "miss");
+
+    public PkcePool(@Value("${oidc.pkce_pool.size}") int size) {
+        this.pool = size > 0 ? new ArrayBlockingQueue<>(size) : null;
+        if (pool != null) {
+            Metrics.gauge("oidc.pkce.pool.size", pool, BlockingQueue::size);
+            filler = new Thread(this::fill, "pkce-pool");
+            filler.setDaemon(true);
+            filler.start();
+        } else {
+            filler = null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (filler != null) {
+            filler.interrupt();
+        }
+    }
+
+    /**
+     * A new verifier with its challenge, the plain method uses the verifier of the pool as challenge.
+     */
+    public Pkce next(CodeChallengeMethod method) {
+        Pkce pkce = pool != null ? pool.poll() : null;
+        if (pkce == null) {
+            misses.increment();
+            pkce = Pkce.compute(new CodeVerifier(randomValue()), CodeChallengeMethod.S256);
+        } else {
+            hits.increment();
+        }
+        return CodeChallengeMethod.S256.equals(method) ? pkce : Pkce.compute(pkce.getCodeVerifier(), method);
+    }
+
+    /**
+     * 256 bits of randomness, base64url encoded without padding. Used for verifiers, nonces and states.
+     */
+    public static String randomValue() {
+        byte[] bytes = new byte[RANDOM_BYTES];
+        random.get().nextBytes(bytes);
+        return Base64URL.encode(bytes).toString();
+    }
+
+    int size() {
+        return pool != null ? pool.size() : 0;
+    }
+
+    private void fill() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                pool.put(Pkce.compute(new CodeVerifier(randomValue()), CodeChallengeMethod.S256));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package playground.provider;
+
+import playground.cache.DiscoveryCache;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An OP with the credentials of the playground client and resource server. The endpoints of the discovery document
+ * are parsed once and parsed again only after the discovery cache has fetched a new document.
+ */
+public class Provider {
+
+    private final String id;
+    private final String clientId;
+    private final String secret;
+    private final String resourceServerId;
+    private final String resourceServerSecret;
+    private final DiscoveryCache discoveryCache;
+
+    private volatile Endpoints endpoints;
+
+    public Provider(String id, String clientId, String secret, String resourceServerId, String resourceServerSecret,
+                    DiscoveryCache discoveryCache) {
+        this.id = id;
+        this.clientId = clientId;
+        this.secret = secret;
+        this.resourceServerId = resourceServerId;
+        this.resourceServerSecret = resourceServerSecret;
+        this.discoveryCache = discoveryCache;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public String getResourceServerId() {
+        return resourceServerId;
+    }
+
+    public String getResourceServerSecret() {
+        return resourceServerSecret;
+    }
+
+    public DiscoveryCache getDiscoveryCache() {
+        return discoveryCache;
+    }
+
+    /**
+     * The URI of the endpoint with the given name in the discovery document, e.g. "token_endpoint".
+     */
+    public URI endpoint(String name) {
+        URI uri = endpoints().get(name);
+        if (uri == null) {
+            throw new ProviderException(String.format("Provider %s has no %s", id, name));
+        }
+        return uri;
+    }
+
+    Map<String, URI> endpoints() {
+        Map<String, Object> metadata = discoveryCache.get();
+        Endpoints current = endpoints;
+        //a refresh that returned 304 keeps the same metadata instance
+        if (current == null || current.metadata != metadata) {
+            current = new Endpoints(metadata);
+            endpoints = current;
+        }
+        return current.uris;
+    }
+
+    private static class Endpoints {
+
+        private final Map<String, Object> metadata;
+        private final Map<String, URI> uris;
+
+        private Endpoints(Map<String, Object> metadata) {
+            Map<String, URI> uris = new HashMap<>();
+            metadata.forEach((name, value) -> {
+                if (name.endsWith("_endpoint") && value instanceof String) {
+                    try {
+                        uris.put(name, URI.create((String) value));
+                    } catch (IllegalArgumentException e) {
+                        //not an URI, requests for this endpoint fail with a ProviderException
+                    }
+                }
+            });
+            this.metadata = metadata;
+            this.uris = Collections.unmodifiableMap(uris);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package playground.provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+import playground.cache.DiscoveryCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The default OP is configured with the oidc.discovery_endpoint, oidc.client_id etc. properties and additional OPs
+ * under oidc.providers. Every OP has its own discovery cache, which starts fetching the discovery document right away.
+ */
+@Configuration
+@EnableConfigurationProperties(ProvidersProperties.class)
+public class ProviderConfiguration {
+
+    @Value("${oidc.client_id}")
+    private String clientId;
+
+    @Value("${oidc.secret}")
+    private String secret;
+
+    @Value("${oidc.resource_server_id}")
+    private String resourceServerId;
+
+    @Value("${oidc.resource_server_secret}")
+    private String resourceServerSecret;
+
+    @Value("${oidc.discovery_cache.ttl_seconds}")
+    private long ttlSeconds;
+
+    @Value("${oidc.discovery_cache.refresh_ahead_seconds}")
+    private long refreshAheadSeconds;
+
+    @Value("${oidc.discovery_cache.timeout_millis}")
+    private int timeoutMillis;
+
+    @Bean
+    public ProviderRegistry providerRegistry(DiscoveryCache discoveryCache, ProvidersProperties properties,
+                                             ResourceLoader resourceLoader, ObjectMapper objectMapper) {
+        List<Provider> providers = new ArrayList<>();
+        providers.add(new Provider(ProviderRegistry.DEFAULT, clientId, secret, resourceServerId, resourceServerSecret,
+                discoveryCache));
+        properties.getProviders().forEach((id, provider) -> {
+            Assert.hasText(provider.getDiscoveryEndpoint(), String.format("Missing discovery_endpoint for provider %s", id));
+            DiscoveryCache providerDiscoveryCache = new DiscoveryCache(
+                    resourceLoader.getResource(provider.getDiscoveryEndpoint()), objectMapper, ttlSeconds,
+                    refreshAheadSeconds, timeoutMillis);
+            providerDiscoveryCache.warmUp();
+            providers.add(new Provider(id, provider.getClientId(), provider.getSecret(), provider.getResourceServerId(),
+                    provider.getResourceServerSecret(), providerDiscoveryCache));
+        });
+        return new ProviderRegistry(providers);
+    }
+}
@@ -0,0 +1,12 @@
+package playground.provider;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ProviderException extends RuntimeException {
+
+    public ProviderException(String message) {
+        super(message);
+    }
+}
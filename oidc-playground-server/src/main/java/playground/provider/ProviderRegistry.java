@@ -0,0 +1,70 @@
+package playground.provider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The OPs this playground can talk to. Requests reference an OP by its id, requests without an id use the OP of
+ * oidc.discovery_endpoint with the id "default".
+ */
+public class ProviderRegistry {
+
+    public static final String DEFAULT = "default";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProviderRegistry.class);
+
+    private final Map<String, Provider> providers = new LinkedHashMap<>();
+
+    public ProviderRegistry(List<Provider> providers) {
+        providers.forEach(provider -> {
+            if (this.providers.put(provider.getId(), provider) != null) {
+                throw new IllegalArgumentException(String.format("Duplicate provider %s", provider.getId()));
+            }
+        });
+        if (!this.providers.containsKey(DEFAULT)) {
+            throw new IllegalArgumentException(String.format("Missing provider %s", DEFAULT));
+        }
+    }
+
+    public Provider get(String id) {
+        Provider provider = providers.get(StringUtils.hasText(id) ? id : DEFAULT);
+        if (provider == null) {
+            throw new ProviderException(String.format("Unknown provider %s", id));
+        }
+        return provider;
+    }
+
+    public Collection<Provider> providers() {
+        return Collections.unmodifiableCollection(providers.values());
+    }
+
+    /**
+     * Parses the endpoints of all OPs once the discovery documents are in, so the first requests do not have to.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void applicationReady() {
+        CompletableFuture.runAsync(() -> providers.values().forEach(provider -> {
+            try {
+                provider.endpoints();
+            } catch (RuntimeException e) {
+                LOG.warn("Unable to load the endpoints of provider {}: {}", provider.getId(), e.getMessage());
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        providers.values().forEach(provider -> provider.getDiscoveryCache().shutdown());
+    }
+}
@@ -0,0 +1,34 @@
+package playground.provider;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The additional OPs configured under oidc.providers, keyed by their id.
+ */
+@ConfigurationProperties(prefix = "oidc")
+@Getter
+@Setter
+public class ProvidersProperties {
+
+    private Map<String, ProviderProperties> providers = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class ProviderProperties {
+
+        private String discoveryEndpoint;
+
+        private String clientId;
+
+        private String secret;
+
+        private String resourceServerId;
+
+        private String resourceServerSecret;
+    }
+}
@@ -0,0 +1,51 @@
+package playground.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class AuthorizationRequest extends ClientRequest {
+
+    @JsonProperty("authorization_endpoint")
+    private String authorizationEndpoint;
+
+    @JsonProperty("pushed_authorization_request_endpoint")
+    private String pushedAuthorizationRequestEndpoint;
+
+    @JsonProperty("response_type")
+    private String responseType;
+
+    @JsonProperty("response_mode")
+    private String responseMode = "fragment";
+
+    private List<String> scope;
+
+    private List<String> claims;
+
+    private String nonce;
+
+    private String state;
+
+    @JsonProperty("acr_values")
+    private String acrValues;
+
+    private boolean forceAuthentication;
+
+    private boolean pkce;
+
+    @JsonProperty("code_challenge")
+    private String codeChallenge;
+
+    @JsonProperty("code_challenge_method")
+    private String codeChallengeMethod;
+
+    private boolean signedJWT;
+
+    private String signedJWTAlgorithm = "RS256";
+
+    private boolean pushed;
+}
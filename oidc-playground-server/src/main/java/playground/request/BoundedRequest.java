@@ -0,0 +1,8 @@
+package playground.request;
+
+/**
+ * Marker for the typed request bodies of the API. The {@link BoundedRequestModule} binds the String and String list
+ * properties of these requests with size limits and skips empty values while parsing.
+ */
+public interface BoundedRequest {
+}
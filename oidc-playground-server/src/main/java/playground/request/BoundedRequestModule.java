@@ -0,0 +1,177 @@
+package playground.request;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.impl.NullsConstantProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binds the String and String list properties of {@link BoundedRequest} bodies straight from the token stream.
+ * Empty strings, empty lists and nulls are skipped, so the property keeps its default. A value longer than
+ * oidc.request.max_field_length or a list with more than oidc.request.max_list_size elements fails the binding
+ * before it is copied into the request.
+ * <p>
+ * Spring Boot registers every Module bean with the ObjectMapper.
+ */
+@Component
+public class BoundedRequestModule extends SimpleModule {
+
+    public BoundedRequestModule(@Value("${oidc.request.max_field_length}") int maxFieldLength,
+                                @Value("${oidc.request.max_list_size}") int maxListSize) {
+        super("BoundedRequestModule");
+        BoundedStringDeserializer stringDeserializer = new BoundedStringDeserializer(maxFieldLength);
+        BoundedListDeserializer listDeserializer = new BoundedListDeserializer(maxFieldLength, maxListSize);
+        setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                         BeanDeserializerBuilder builder) {
+                if (!BoundedRequest.class.isAssignableFrom(beanDesc.getBeanClass())) {
+                    return builder;
+                }
+                List<SettableBeanProperty> properties = new ArrayList<>();
+                builder.getProperties().forEachRemaining(properties::add);
+                properties.forEach(property -> {
+                    JsonDeserializer<?> deserializer = deserializer(property.getType(), stringDeserializer, listDeserializer);
+                    if (deserializer != null) {
+                        builder.addOrReplaceProperty(property
+                                .withValueDeserializer(deserializer)
+                                .withNullProvider(NullsConstantProvider.skipper()), true);
+                    }
+                });
+                return builder;
+            }
+        });
+    }
+
+    private static JsonDeserializer<?> deserializer(JavaType type, BoundedStringDeserializer stringDeserializer,
+                                                    BoundedListDeserializer listDeserializer) {
+        if (type.hasRawClass(String.class)) {
+            return stringDeserializer;
+        }
+        if (type.isCollectionLikeType() && type.getContentType().hasRawClass(String.class)) {
+            return listDeserializer;
+        }
+        return null;
+    }
+
+    private static String text(JsonParser p, int maxFieldLength) throws IOException {
+        if (p.getTextLength() > maxFieldLength) {
+            throw JsonMappingException.from(p, String.format("Value of %s exceeds the maximum length of %s",
+                    fieldName(p), maxFieldLength));
+        }
+        //values like secrets and code verifiers are passed to the OP as they are, only "" is absent
+        String text = p.getText();
+        return text.isEmpty() ? null : text;
+    }
+
+    private static String fieldName(JsonParser p) {
+        JsonStreamContext context = p.getParsingContext();
+        return context.inArray() ? context.getParent().getCurrentName() : context.getCurrentName();
+    }
+
+    /**
+     * Arrays are joined with spaces, as the client sends a single select like the acr_values sometimes as array.
+     */
+    static class BoundedStringDeserializer extends StdDeserializer<String> {
+
+        private final int maxFieldLength;
+
+        BoundedStringDeserializer(int maxFieldLength) {
+            super(String.class);
+            this.maxFieldLength = maxFieldLength;
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                return text(p, maxFieldLength);
+            }
+            if (token == JsonToken.START_ARRAY) {
+                StringBuilder builder = new StringBuilder();
+                while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                    if (token != JsonToken.VALUE_STRING) {
+                        return (String) ctxt.handleUnexpectedToken(String.class, p);
+                    }
+                    String text = text(p, maxFieldLength);
+                    if (text != null) {
+                        if (builder.length() + text.length() + 1 > maxFieldLength) {
+                            throw JsonMappingException.from(p, String.format("Values of %s exceed the maximum length of %s",
+                                    fieldName(p), maxFieldLength));
+                        }
+                        builder.append(builder.length() == 0 ? "" : " ").append(text);
+                    }
+                }
+                return builder.length() == 0 ? null : builder.toString();
+            }
+            if (token.isScalarValue()) {
+                return p.getValueAsString();
+            }
+            return (String) ctxt.handleUnexpectedToken(String.class, p);
+        }
+    }
+
+    static class BoundedListDeserializer extends StdDeserializer<List<String>> {
+
+        private final int maxFieldLength;
+        private final int maxListSize;
+
+        BoundedListDeserializer(int maxFieldLength, int maxListSize) {
+            super(List.class);
+            this.maxFieldLength = maxFieldLength;
+            this.maxListSize = maxListSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<String> deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            JsonToken token = p.currentToken();
+            if (token == JsonToken.VALUE_STRING) {
+                String text = text(p, maxFieldLength);
+                return text == null ? null : Collections.singletonList(text);
+            }
+            if (token != JsonToken.START_ARRAY) {
+                return (List<String>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+            List<String> result = null;
+            while ((token = p.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                if (token != JsonToken.VALUE_STRING) {
+                    return (List<String>) ctxt.handleUnexpectedToken(List.class, p);
+                }
+                String text = text(p, maxFieldLength);
+                if (text == null) {
+                    continue;
+                }
+                if (result == null) {
+                    result = new ArrayList<>();
+                } else if (result.size() == maxListSize) {
+                    throw JsonMappingException.from(p, String.format("List %s exceeds the maximum size of %s",
+                            fieldName(p), maxListSize));
+                }
+                result.add(text);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package playground.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The client authentication settings shared by the requests to the token, introspection and pushed authorization
+ * request endpoints.
+ */
+@Getter
+@Setter
+public abstract class ClientRequest implements BoundedRequest {
+
+    @JsonProperty("client_id")
+    private String clientId;
+
+    @JsonProperty("client_secret")
+    private String clientSecret;
+
+    @JsonProperty("token_endpoint_auth_method")
+    private String tokenEndpointAuthMethod = "client_secret_basic";
+
+    private boolean omitAuthentication;
+
+    private String provider;
+}
@@ -0,0 +1,13 @@
+package playground.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CodeChallengeRequest implements BoundedRequest {
+
+    private String codeChallengeMethod;
+
+    private String codeVerifier;
+}
@@ -0,0 +1,13 @@
+package playground.request;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class DecodeRequest implements BoundedRequest {
+
+    private List<String> tokens;
+}
@@ -0,0 +1,15 @@
+package playground.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class IntrospectRequest extends ClientRequest {
+
+    @JsonProperty("introspect_endpoint")
+    private String introspectEndpoint;
+
+    private String token;
+}
@@ -0,0 +1,30 @@
+package playground.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Request for the authorization_code, client_credentials and refresh_token grants.
+ */
+@Getter
+@Setter
+public class TokenRequest extends ClientRequest {
+
+    @JsonProperty("token_endpoint")
+    private String tokenEndpoint;
+
+    private String code;
+
+    @JsonProperty("refresh_token")
+    private String refreshToken;
+
+    private List<String> scope;
+
+    private boolean pkce;
+
+    @JsonProperty("code_verifier")
+    private String codeVerifier;
+}
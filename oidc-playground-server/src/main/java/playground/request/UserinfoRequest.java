@@ -0,0 +1,20 @@
+package playground.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserinfoRequest implements BoundedRequest {
+
+    @JsonProperty("userinfo_endpoint")
+    private String userinfoEndpoint;
+
+    private String token;
+
+    private String provider;
+
+    @JsonProperty("bypass_cache")
+    private boolean bypassCache;
+}
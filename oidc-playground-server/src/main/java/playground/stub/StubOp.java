@@ -0,0 +1,327 @@
+package playground.stub;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.HtmlUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A stub OP for running the playground without network, e.g. for load tests. It serves discovery, authorize, token,
+ * introspect, userinfo and the JWKS under /stub and signs real ID tokens with a key generated at startup. Every
+ * authorization code, refresh token and client is accepted.
+ * <p>
+ * Responses of the back-channel endpoints are delayed with oidc.stub_op.latency_millis without holding a thread and a
+ * fraction oidc.stub_op.error_rate of them fails with a 500.
+ */
+@RestController
+@RequestMapping("/stub")
+@Profile("stub-op")
+public class StubOp {
+
+    private static final String SUBJECT = "urn:collab:person:example.com:admin";
+
+    private final RSAKey signingKey;
+    private final long latencyMillis;
+    private final double errorRate;
+    private final long tokenTtlSeconds;
+
+    private final Cache<String, Map<String, String>> pushedRequests;
+    private final Cache<String, Map<String, Object>> codes;
+    private final Cache<String, Map<String, Object>> accessTokens;
+
+    public StubOp(@Value("${oidc.stub_op.latency_millis}") long latencyMillis,
+                  @Value("${oidc.stub_op.error_rate}") double errorRate,
+                  @Value("${oidc.stub_op.token_ttl_seconds}") long tokenTtlSeconds,
+                  @Value("${oidc.stub_op.max_tokens}") long maxTokens) throws JOSEException {
+        this.signingKey = new RSAKeyGenerator(2048).keyID("stub-op-" + UUID.randomUUID()).generate();
+        this.latencyMillis = latencyMillis;
+        this.errorRate = errorRate;
+        this.tokenTtlSeconds = tokenTtlSeconds;
+        this.pushedRequests = Caffeine.newBuilder().maximumSize(maxTokens).expireAfterWrite(60, TimeUnit.SECONDS).build();
+        this.codes = Caffeine.newBuilder().maximumSize(maxTokens).expireAfterWrite(10, TimeUnit.MINUTES).build();
+        this.accessTokens = Caffeine.newBuilder().maximumSize(maxTokens)
+                .expireAfterWrite(tokenTtlSeconds, TimeUnit.SECONDS).build();
+    }
+
+    @GetMapping(value = "/.well-known/openid-configuration", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Map<String, Object> discovery() {
+        String issuer = issuer();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("issuer", issuer);
+        result.put("authorization_endpoint", issuer + "/authorize");
+        result.put("token_endpoint", issuer + "/token");
+        result.put("pushed_authorization_request_endpoint", issuer + "/par");
+        result.put("userinfo_endpoint", issuer + "/userinfo");
+        result.put("introspect_endpoint", issuer + "/introspect");
+        result.put("jwks_uri", issuer + "/certs");
+        result.put("response_types_supported", Arrays.asList("code", "token", "id_token", "id_token token",
+                "code id_token", "code token", "code id_token token"));
+        result.put("response_modes_supported", Arrays.asList("query", "fragment", "form_post"));
+        result.put("grant_types_supported", Arrays.asList("authorization_code", "implicit", "refresh_token",
+                "client_credentials"));
+        result.put("subject_types_supported", Collections.singletonList("public"));
+        result.put("id_token_signing_alg_values_supported", Collections.singletonList("RS256"));
+        result.put("scopes_supported", Arrays.asList("openid", "groups", "profile", "email"));
+        result.put("claims_supported", Arrays.asList("sub", "name", "email", "edumember_is_member_of"));
+        result.put("acr_values_supported", Collections.singletonList("http://test.surfconext.nl/assurance/loa1"));
+        result.put("token_endpoint_auth_methods_supported", Arrays.asList("client_secret_basic", "client_secret_post"));
+        result.put("code_challenge_methods_supported", Arrays.asList("plain", "S256"));
+        return result;
+    }
+
+    @GetMapping(value = "/certs", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public String certs() {
+        return new JWKSet(signingKey.toPublicJWK()).toJSONObject().toString();
+    }
+
+    /**
+     * Authenticates the user straight away. The parameters of a request object are used, its signature is not checked.
+     */
+    @GetMapping("/authorize")
+    public ResponseEntity<String> authorize(@RequestParam Map<String, String> requestParameters) throws ParseException {
+        Map<String, String> parameters = new HashMap<>(requestParameters);
+        if (parameters.containsKey("request_uri")) {
+            Map<String, String> pushed = pushedRequests.asMap().remove(parameters.get("request_uri"));
+            if (pushed == null) {
+                return ResponseEntity.badRequest().body("Unknown or expired request_uri");
+            }
+            parameters.putAll(pushed);
+        }
+        if (parameters.containsKey("request")) {
+            SignedJWT.parse(parameters.get("request")).getJWTClaimsSet().getClaims().forEach((name, value) -> {
+                if (value instanceof String) {
+                    parameters.putIfAbsent(name, (String) value);
+                }
+            });
+        }
+        String clientId = parameters.get("client_id");
+        String redirectUri = parameters.get("redirect_uri");
+        if (!StringUtils.hasText(clientId) || !StringUtils.hasText(redirectUri)) {
+            return ResponseEntity.badRequest().body("Missing client_id or redirect_uri");
+        }
+        String responseType = parameters.getOrDefault("response_type", "code");
+        String nonce = parameters.get("nonce");
+
+        Map<String, String> response = new LinkedHashMap<>();
+        if (responseType.contains("code")) {
+            String code = UUID.randomUUID().toString();
+            Map<String, Object> grant = new HashMap<>();
+            grant.put("client_id", clientId);
+            grant.put("nonce", nonce);
+            codes.put(code, grant);
+            response.put("code", code);
+        }
+        if (responseType.contains("token")) {
+            String accessToken = accessToken(clientId);
+            response.put("access_token", accessToken);
+            response.put("token_type", "Bearer");
+            response.put("expires_in", String.valueOf(tokenTtlSeconds));
+        }
+        if (responseType.contains("id_token")) {
+            response.put("id_token", idToken(issuer(), clientId, nonce));
+        }
+        if (parameters.containsKey("state")) {
+            response.put("state", parameters.get("state"));
+        }
+
+        String responseMode = parameters.getOrDefault("response_mode",
+                responseType.equals("code") ? "query" : "fragment");
+        if (responseMode.equals("form_post")) {
+            return ResponseEntity.ok().contentType(MediaType.TEXT_HTML).body(formPost(redirectUri, response));
+        }
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(redirectUri);
+        if (responseMode.equals("query")) {
+            response.forEach(builder::queryParam);
+        } else {
+            UriComponentsBuilder fragment = UriComponentsBuilder.newInstance();
+            response.forEach(fragment::queryParam);
+            builder.fragment(fragment.build().getQuery());
+        }
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .header(HttpHeaders.LOCATION, builder.encode().build().toUriString())
+                .build();
+    }
+
+    @PostMapping(value = "/par", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> pushedAuthorizationRequest(@RequestParam Map<String, String> parameters) {
+        return respond(() -> {
+            String requestUri = "urn:ietf:params:oauth:request_uri:" + UUID.randomUUID();
+            pushedRequests.put(requestUri, new HashMap<>(parameters));
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("request_uri", requestUri);
+            result.put("expires_in", 60);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        });
+    }
+
+    @PostMapping(value = "/token", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> token(@RequestParam Map<String, String> parameters,
+                                                           @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        //the issuer depends on the current request, which is not available after the delay
+        String issuer = issuer();
+        return respond(() -> {
+            String grantType = parameters.get("grant_type");
+            String clientId = clientId(parameters, authorization);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("access_token", accessToken(clientId));
+            result.put("token_type", "Bearer");
+            result.put("expires_in", tokenTtlSeconds);
+            if ("authorization_code".equals(grantType) || "refresh_token".equals(grantType)) {
+                Map<String, Object> grant = parameters.containsKey("code") ?
+                        codes.asMap().remove(parameters.get("code")) : null;
+                String nonce = grant != null ? (String) grant.get("nonce") : null;
+                result.put("id_token", idToken(issuer, clientId, nonce));
+                result.put("refresh_token", UUID.randomUUID().toString());
+            } else if (!"client_credentials".equals(grantType)) {
+                return ResponseEntity.badRequest().body(Collections.singletonMap("error", "unsupported_grant_type"));
+            }
+            return ResponseEntity.ok(result);
+        });
+    }
+
+    @PostMapping(value = "/introspect", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> introspect(@RequestParam(value = "token", required = false) String token) {
+        return respond(() -> {
+            Map<String, Object> claims = token != null ? accessTokens.getIfPresent(token) : null;
+            if (claims == null) {
+                return ResponseEntity.ok(Collections.singletonMap("active", false));
+            }
+            Map<String, Object> result = new LinkedHashMap<>(claims);
+            result.put("active", true);
+            return ResponseEntity.ok(result);
+        });
+    }
+
+    @PostMapping(value = "/userinfo", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public Mono<ResponseEntity<Map<String, Object>>> userinfo(@RequestParam(value = "access_token", required = false) String accessToken,
+                                                              @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return respond(() -> {
+            String token = authorization != null && authorization.startsWith("Bearer ") ?
+                    authorization.substring("Bearer ".length()) : accessToken;
+            if (token == null || accessTokens.getIfPresent(token) == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                        .body(Collections.singletonMap("error", "invalid_token"));
+            }
+            return ResponseEntity.ok(userClaims());
+        });
+    }
+
+    private Mono<ResponseEntity<Map<String, Object>>> respond(Supplier<ResponseEntity<Map<String, Object>>> response) {
+        Mono<ResponseEntity<Map<String, Object>>> result = Mono.fromSupplier(() -> {
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", "server_error");
+                error.put("error_description", "Injected by the stub OP");
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+            }
+            return response.get();
+        });
+        return latencyMillis > 0 ? Mono.delay(Duration.ofMillis(latencyMillis)).then(result) : result;
+    }
+
+    private String accessToken(String clientId) {
+        String accessToken = UUID.randomUUID().toString();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("client_id", clientId);
+        claims.put("sub", SUBJECT);
+        claims.put("scope", "openid groups");
+        claims.put("exp", Instant.now().plusSeconds(tokenTtlSeconds).getEpochSecond());
+        accessTokens.put(accessToken, claims);
+        return accessToken;
+    }
+
+    private String idToken(String issuer, String clientId, String nonce) {
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(SUBJECT)
+                .audience(clientId)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(tokenTtlSeconds)))
+                .jwtID(UUID.randomUUID().toString());
+        if (nonce != null) {
+            builder.claim("nonce", nonce);
+        }
+        userClaims().forEach(builder::claim);
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .type(JOSEObjectType.JWT).keyID(signingKey.getKeyID()).build(), builder.build());
+        try {
+            signedJWT.sign(new RSASSASigner(signingKey));
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+        return signedJWT.serialize();
+    }
+
+    private Map<String, Object> userClaims() {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", SUBJECT);
+        claims.put("name", "John Doe");
+        claims.put("email", "john.doe@example.com");
+        claims.put("edumember_is_member_of", Arrays.asList("urn:collab:group:example.com:admins",
+                "urn:collab:group:example.com:users"));
+        return claims;
+    }
+
+    private String clientId(Map<String, String> parameters, String authorization) {
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring("Basic ".length())),
+                    StandardCharsets.UTF_8);
+            return credentials.split(":", 2)[0];
+        }
+        return parameters.get("client_id");
+    }
+
+    private String formPost(String redirectUri, Map<String, String> response) {
+        StringBuilder html = new StringBuilder("<html><body onload=\"document.forms[0].submit()\"><form method=\"post\" action=\"")
+                .append(HtmlUtils.htmlEscape(redirectUri)).append("\">");
+        response.forEach((name, value) -> html.append("<input type=\"hidden\" name=\"").append(HtmlUtils.htmlEscape(name))
+                .append("\" value=\"").append(HtmlUtils.htmlEscape(value)).append("\"/>"));
+        return html.append("</form></body></html>").toString();
+    }
+
+    private String issuer() {
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path("/stub").build().toUriString();
+    }
+}
@@ -0,0 +1,177 @@
+package playground.upstream;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrency limit for one upstream endpoint that adapts in AIMD style: every call that completes within the latency
+ * threshold increases the limit by one, every failed or slow call multiplies it with the backoff ratio. Callers over the
+ * limit wait in a bounded queue and are rejected with a {@link ConcurrencyLimitExceededException} when the queue is
+ * full or their maximum wait time has passed.
+ */
+public class AdaptiveLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueueSize;
+    private final long maxWaitMillis;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private double limit;
+    private int inFlight;
+    private long rejected;
+
+    public AdaptiveLimiter(String name, int initialLimit, int minLimit, int maxLimit, int maxQueueSize,
+                           long maxWaitMillis, long latencyThresholdMillis, double backoffRatio) {
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueSize = maxQueueSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+    }
+
+    public Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            boolean acquired = false;
+            boolean queueFull = false;
+            synchronized (this) {
+                if (inFlight < currentLimit()) {
+                    inFlight++;
+                    acquired = true;
+                } else if (waiters.size() >= maxQueueSize) {
+                    rejected++;
+                    queueFull = true;
+                } else {
+                    waiters.add(waiter);
+                }
+            }
+            if (acquired) {
+                sink.success(new Permit());
+            } else if (queueFull) {
+                sink.error(new ConcurrencyLimitExceededException(name, currentLimit()));
+            } else {
+                sink.onCancel(() -> cancel(waiter));
+                waiter.timeout = Schedulers.parallel().schedule(() -> expire(waiter), maxWaitMillis, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("limit", currentLimit());
+        result.put("in_flight", inFlight);
+        result.put("queued", waiters.size());
+        result.put("rejected", rejected);
+        return result;
+    }
+
+    synchronized int currentLimit() {
+        return (int) limit;
+    }
+
+    private void expire(Waiter waiter) {
+        synchronized (this) {
+            if (!waiters.remove(waiter)) {
+                return;
+            }
+            rejected++;
+        }
+        waiter.sink.error(new ConcurrencyLimitExceededException(name, currentLimit()));
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            granted = waiter.permit;
+        }
+        //the permit was handed out after the subscriber went away
+        if (granted != null) {
+            granted.ignore();
+        }
+    }
+
+    private void release(long latencyNanos, Boolean dropped) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (this) {
+            inFlight--;
+            if (dropped != null) {
+                if (dropped || latencyNanos > latencyThresholdNanos) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                } else if ((inFlight + 1) * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            while (inFlight < currentLimit() && !waiters.isEmpty()) {
+                Waiter waiter = waiters.poll();
+                inFlight++;
+                waiter.permit = new Permit();
+                granted.add(waiter);
+            }
+        }
+        //hand over on another thread, the releasing thread is still busy finishing its own request
+        granted.forEach(waiter -> {
+            Disposable timeout = waiter.timeout;
+            if (timeout != null) {
+                timeout.dispose();
+            }
+            Schedulers.elastic().schedule(() -> waiter.sink.success(waiter.permit));
+        });
+    }
+
+    private static class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private volatile Disposable timeout;
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    public class Permit {
+
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void success() {
+            release(false);
+        }
+
+        public void dropped() {
+            release(true);
+        }
+
+        public void ignore() {
+            release(null);
+        }
+
+        private void release(Boolean dropped) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveLimiter.this.release(System.nanoTime() - start, dropped);
+            }
+        }
+    }
+}
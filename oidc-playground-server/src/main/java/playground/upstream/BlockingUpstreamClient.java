@@ -0,0 +1,38 @@
+package playground.upstream;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Performs the call on the subscribing thread, which is the servlet worker thread handling the request.
+ */
+public class BlockingUpstreamClient implements UpstreamClient {
+
+    private final RestTemplate restTemplate;
+
+    public BlockingUpstreamClient(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> exchange(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity) {
+        return Mono.fromCallable(() -> restTemplate.exchange(requestEntity, mapResponseType).getBody());
+    }
+
+    /**
+     * The error handler of the RestTemplate throws for an error status before the extractor runs.
+     */
+    @Override
+    public Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                             OutputStream outputStream) {
+        return Mono.fromRunnable(() -> restTemplate.execute(requestEntity.getUrl(), requestEntity.getMethod(),
+                restTemplate.httpEntityCallback(requestEntity),
+                response -> StreamUtils.copy(response.getBody(), outputStream)));
+    }
+}
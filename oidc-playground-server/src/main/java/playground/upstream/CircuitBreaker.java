@@ -0,0 +1,172 @@
+package playground.upstream;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker for one upstream host. While closed the outcomes of the last window_size calls are kept, the circuit
+ * opens when at least minimum_calls of them are known and the share of failed or of slow calls reaches its threshold.
+ * An open circuit rejects calls with a {@link CircuitOpenException} until open_millis have passed, then half_open_calls
+ * probe calls are let through: it closes when all of them succeed in time and opens again on the first failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int position;
+    private int calls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probes;
+    private int probeSuccesses;
+    private long rejected;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long slowCallMillis, double slowCallRateThreshold, long openMillis, int halfOpenCalls) {
+        this.name = name;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMillis);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.halfOpenCalls = halfOpenCalls;
+        this.failed = new boolean[windowSize];
+        this.slow = new boolean[windowSize];
+    }
+
+    public synchronized Permit acquire() {
+        if (state == State.OPEN) {
+            long remaining = openedAt + openNanos - System.nanoTime();
+            if (remaining > 0) {
+                rejected++;
+                throw new CircuitOpenException(name, TimeUnit.NANOSECONDS.toMillis(remaining));
+            }
+            state = State.HALF_OPEN;
+            probes = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes >= halfOpenCalls) {
+                rejected++;
+                throw new CircuitOpenException(name, 0);
+            }
+            probes++;
+            return new Permit(true);
+        }
+        return new Permit(false);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", state);
+        result.put("calls", calls);
+        result.put("failure_rate", rate(failed));
+        result.put("slow_call_rate", rate(slow));
+        result.put("rejected", rejected);
+        return result;
+    }
+
+    private synchronized void record(boolean probe, Boolean failure, long latencyNanos) {
+        boolean slowCall = latencyNanos > slowCallNanos;
+        if (probe) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            if (failure == null) {
+                //the probe did not tell anything, let another one through
+                probes--;
+            } else if (failure || slowCall) {
+                open();
+            } else if (++probeSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        //calls that were started before the circuit opened do not count
+        if (state != State.CLOSED || failure == null) {
+            return;
+        }
+        failed[position] = failure;
+        slow[position] = slowCall;
+        position = (position + 1) % failed.length;
+        calls = Math.min(calls + 1, failed.length);
+        if (calls >= minimumCalls && (rate(failed) >= failureRateThreshold || rate(slow) >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        calls = 0;
+    }
+
+    private double rate(boolean[] outcomes) {
+        if (calls == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < calls; i++) {
+            if (outcomes[i]) {
+                count++;
+            }
+        }
+        return (double) count / calls;
+    }
+
+    public class Permit {
+
+        private final boolean probe;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        public void success() {
+            release(false);
+        }
+
+        public void failure() {
+            release(true);
+        }
+
+        /**
+         * The call ended without saying anything about the health of the OP, e.g. it was cancelled.
+         */
+        public void ignore() {
+            release(null);
+        }
+
+        private void release(Boolean failure) {
+            if (released.compareAndSet(false, true)) {
+                record(probe, failure, System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package playground.upstream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One {@link CircuitBreaker} for each upstream host, an OP that is down fails all its endpoints at once.
+ */
+@Component
+public class CircuitBreakers {
+
+    private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    @Value("${oidc.circuit_breaker.enabled}")
+    private boolean enabled;
+
+    @Value("${oidc.circuit_breaker.window_size}")
+    private int windowSize;
+
+    @Value("${oidc.circuit_breaker.minimum_calls}")
+    private int minimumCalls;
+
+    @Value("${oidc.circuit_breaker.failure_rate_threshold}")
+    private double failureRateThreshold;
+
+    @Value("${oidc.circuit_breaker.slow_call_millis}")
+    private long slowCallMillis;
+
+    @Value("${oidc.circuit_breaker.slow_call_rate_threshold}")
+    private double slowCallRateThreshold;
+
+    @Value("${oidc.circuit_breaker.open_millis}")
+    private long openMillis;
+
+    @Value("${oidc.circuit_breaker.half_open_calls}")
+    private int halfOpenCalls;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CircuitBreaker breaker(URI uri) {
+        String host = uri.getScheme() + "://" + uri.getAuthority();
+        return breakers.computeIfAbsent(host, name -> new CircuitBreaker(name, windowSize, minimumCalls,
+                failureRateThreshold, slowCallMillis, slowCallRateThreshold, openMillis, halfOpenCalls));
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        breakers.forEach((host, breaker) -> result.put(host, breaker.snapshot()));
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package playground.upstream;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Reports the state of the circuit breaker of every upstream host under "circuitBreakers" in the health endpoint. An
+ * open circuit means the OP is in trouble, not this node, so the custom CIRCUIT_OPEN status does not bring the overall
+ * status down and the load balancer keeps sending traffic.
+ */
+@Component
+public class CircuitBreakersHealthIndicator extends AbstractHealthIndicator {
+
+    static final Status CIRCUIT_OPEN = new Status("CIRCUIT_OPEN", "Calls to at least one upstream host are suspended");
+
+    private final CircuitBreakers circuitBreakers;
+
+    public CircuitBreakersHealthIndicator(CircuitBreakers circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        Map<String, Map<String, Object>> snapshot = circuitBreakers.snapshot();
+        boolean open = snapshot.values().stream()
+                .anyMatch(breaker -> breaker.get("state") != CircuitBreaker.State.CLOSED);
+        builder.status(open ? CIRCUIT_OPEN : Status.UP)
+                .withDetail("enabled", circuitBreakers.isEnabled())
+                .withDetails(snapshot);
+    }
+}
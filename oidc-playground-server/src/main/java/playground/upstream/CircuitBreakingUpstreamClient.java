@@ -0,0 +1,119 @@
+package playground.upstream;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Enforces the timeout of the endpoint on every call of the delegate and, when enabled, guards it with the circuit
+ * breaker of the host. In blocking mode the timeout fails the request fast, the call itself keeps its thread until
+ * the read timeout of the HTTP client. Client errors of the OP and calls rejected by the limiter do not count as
+ * failures.
+ */
+public class CircuitBreakingUpstreamClient implements UpstreamClient {
+
+    private final UpstreamClient delegate;
+    private final CircuitBreakers circuitBreakers;
+    private final Map<String, Duration> timeouts;
+
+    /**
+     * @param timeouts the timeout for each endpoint name of {@link UpstreamClient}
+     */
+    public CircuitBreakingUpstreamClient(UpstreamClient delegate, CircuitBreakers circuitBreakers,
+                                         Map<String, Duration> timeouts) {
+        this.delegate = delegate;
+        this.circuitBreakers = circuitBreakers;
+        this.timeouts = timeouts;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> exchange(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity) {
+        return guard(endpoint, requestEntity, () -> delegate.exchange(endpoint, requestEntity), null);
+    }
+
+    /**
+     * Only the wait for the response of the OP counts, not copying the body to a slow browser: the deadline stops and
+     * the call counts as a success as soon as the first bytes of the body are written.
+     */
+    @Override
+    public Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                             OutputStream outputStream) {
+        return Mono.defer(() -> {
+            ResponseStartedOutputStream responseStarted = new ResponseStartedOutputStream(outputStream);
+            return guard(endpoint, requestEntity, () -> delegate.stream(endpoint, requestEntity, responseStarted),
+                    responseStarted);
+        });
+    }
+
+    private <T> Mono<T> guard(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                              Supplier<Mono<T>> call, ResponseStartedOutputStream responseStarted) {
+        Duration timeout = timeouts.get(endpoint);
+        if (timeout == null) {
+            return Mono.error(new IllegalArgumentException(String.format("No timeout for endpoint %s", endpoint)));
+        }
+        Mono<Long> deadline = Mono.delay(timeout)
+                .flatMap(tick -> responseStarted != null && responseStarted.started ? Mono.never() : Mono.just(tick));
+        if (!circuitBreakers.isEnabled()) {
+            return Mono.defer(() -> call.get().timeout(deadline));
+        }
+        return Mono.defer(() -> {
+            CircuitBreaker.Permit permit = circuitBreakers.breaker(requestEntity.getUrl()).acquire();
+            if (responseStarted != null) {
+                responseStarted.onStart = permit::success;
+            }
+            return call.get()
+                    .timeout(deadline)
+                    .doOnSuccess(result -> permit.success())
+                    .doOnError(e -> {
+                        if (e instanceof HttpClientErrorException) {
+                            permit.success();
+                        } else if (e instanceof ConcurrencyLimitExceededException) {
+                            permit.ignore();
+                        } else {
+                            permit.failure();
+                        }
+                    })
+                    .doOnCancel(permit::ignore);
+        });
+    }
+
+    private static class ResponseStartedOutputStream extends FilterOutputStream {
+
+        private volatile boolean started;
+        private volatile Runnable onStart;
+
+        private ResponseStartedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            start();
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            start();
+            out.write(b, off, len);
+        }
+
+        private void start() {
+            if (!started) {
+                started = true;
+                Runnable callback = onStart;
+                if (callback != null) {
+                    callback.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package playground.upstream;
+
+public class CircuitOpenException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(String upstream, long retryAfterMillis) {
+        super(String.format("Calls to %s are suspended after repeated failures", upstream));
+        this.retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,8 @@
+package playground.upstream;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String upstream, int limit) {
+        super(String.format("Too many concurrent requests to %s, the current limit is %s", upstream, limit));
+    }
+}
@@ -0,0 +1,59 @@
+package playground.upstream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * One {@link AdaptiveLimiter} for each upstream endpoint, so a slow endpoint of the OP can not tie up all workers.
+ */
+@Component
+public class ConcurrencyLimiters {
+
+    private final ConcurrentMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    @Value("${oidc.limiter.enabled}")
+    private boolean enabled;
+
+    @Value("${oidc.limiter.initial_limit}")
+    private int initialLimit;
+
+    @Value("${oidc.limiter.min_limit}")
+    private int minLimit;
+
+    @Value("${oidc.limiter.max_limit}")
+    private int maxLimit;
+
+    @Value("${oidc.limiter.max_queue_size}")
+    private int maxQueueSize;
+
+    @Value("${oidc.limiter.max_wait_millis}")
+    private long maxWaitMillis;
+
+    @Value("${oidc.limiter.latency_threshold_millis}")
+    private long latencyThresholdMillis;
+
+    @Value("${oidc.limiter.backoff_ratio}")
+    private double backoffRatio;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public AdaptiveLimiter limiter(URI uri) {
+        String endpoint = uri.getScheme() + "://" + uri.getAuthority() + uri.getPath();
+        return limiters.computeIfAbsent(endpoint, name -> new AdaptiveLimiter(name, initialLimit, minLimit, maxLimit,
+                maxQueueSize, maxWaitMillis, latencyThresholdMillis, backoffRatio));
+    }
+
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        limiters.forEach((endpoint, limiter) -> result.put(endpoint, limiter.snapshot()));
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package playground.upstream;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import playground.provider.Provider;
+import playground.provider.ProviderRegistry;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens connections to the token, introspection and userinfo endpoints of every OP once the application is ready, so
+ * the first requests of the users do not pay for the TCP and TLS handshakes.
+ */
+@Component
+@ConditionalOnProperty(name = "oidc.http.engine", havingValue = "pooled", matchIfMissing = true)
+public class ConnectionPrewarmer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPrewarmer.class);
+
+    private static final List<String> endpoints = Arrays.asList("token_endpoint", "introspect_endpoint", "userinfo_endpoint");
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final ProviderRegistry providerRegistry;
+    private final int connections;
+    private final int connectTimeoutMillis;
+    private final int idleTimeoutSeconds;
+
+    public ConnectionPrewarmer(PoolingHttpClientConnectionManager connectionManager,
+                               ProviderRegistry providerRegistry,
+                               @Value("${oidc.http.prewarm_connections}") int connections,
+                               @Value("${oidc.http.connect_timeout_millis}") int connectTimeoutMillis,
+                               @Value("${oidc.http.idle_timeout_seconds}") int idleTimeoutSeconds) {
+        this.connectionManager = connectionManager;
+        this.providerRegistry = providerRegistry;
+        this.connections = connections;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void applicationReady() {
+        if (connections > 0) {
+            CompletableFuture.runAsync(this::prewarm);
+        }
+    }
+
+    private void prewarm() {
+        providerRegistry.providers().forEach(this::prewarm);
+    }
+
+    private void prewarm(Provider provider) {
+        try {
+            Map<String, Object> discovery = provider.getDiscoveryCache().get();
+            endpoints.stream()
+                    .map(discovery::get)
+                    .filter(endpoint -> endpoint instanceof String && StringUtils.hasText((String) endpoint))
+                    .distinct()
+                    .forEach(endpoint -> prewarm((String) endpoint));
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to pre-warm connections to provider {}", provider.getId(), e);
+        }
+    }
+
+    void prewarm(String endpoint) {
+        URI uri = URI.create(endpoint);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() != -1 ? uri.getPort() : secure ? 443 : 80;
+        HttpRoute route = new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+
+        List<HttpClientConnection> opened = new ArrayList<>();
+        try {
+            for (int i = 0; i < connections; i++) {
+                HttpClientConnection connection = connectionManager.requestConnection(route, null)
+                        .get(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+                opened.add(connection);
+                if (!connection.isOpen()) {
+                    HttpClientContext context = HttpClientContext.create();
+                    connectionManager.connect(connection, route, connectTimeoutMillis, context);
+                    connectionManager.routeComplete(connection, route, context);
+                }
+            }
+            LOG.info("Pre-warmed {} connection(s) to {}", opened.size(), route.getTargetHost());
+        } catch (Exception e) {
+            LOG.warn("Unable to pre-warm connections to {}: {}", endpoint, e.getMessage());
+        } finally {
+            opened.forEach(connection ->
+                    connectionManager.releaseConnection(connection, null, idleTimeoutSeconds, TimeUnit.SECONDS));
+        }
+    }
+}
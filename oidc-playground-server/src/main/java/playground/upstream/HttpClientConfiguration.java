@@ -0,0 +1,164 @@
+package playground.upstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.net.ssl.SSLContext;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP client used for all outbound calls to the OP. The default "pooled" engine keeps connections alive and reuses
+ * TLS sessions, the "simple" engine is the JDK HttpURLConnection based client we used to have.
+ * <p>
+ * With oidc.http.mode "reactive" the calls to the token, introspection and userinfo endpoints are made with a
+ * non-blocking Reactor Netty client instead of the RestTemplate.
+ * <p>
+ * Every call has the timeout of its endpoint and passes the circuit breaker of its host, see
+ * {@link CircuitBreakingUpstreamClient}.
+ */
+@Configuration
+public class HttpClientConfiguration {
+
+    @Value("${oidc.http.mode}")
+    private String mode;
+
+    @Value("${oidc.http.max_total}")
+    private int maxTotal;
+
+    @Value("${oidc.http.max_per_route}")
+    private int maxPerRoute;
+
+    @Value("${oidc.http.idle_timeout_seconds}")
+    private int idleTimeoutSeconds;
+
+    @Value("${oidc.http.connect_timeout_millis}")
+    private int connectTimeoutMillis;
+
+    @Value("${oidc.http.read_timeout_millis}")
+    private int readTimeoutMillis;
+
+    @Value("${oidc.http.pool_acquire_timeout_millis}")
+    private int poolAcquireTimeoutMillis;
+
+    @Value("${oidc.http.token_timeout_millis}")
+    private long tokenTimeoutMillis;
+
+    @Value("${oidc.http.introspect_timeout_millis}")
+    private long introspectTimeoutMillis;
+
+    @Value("${oidc.http.userinfo_timeout_millis}")
+    private long userinfoTimeoutMillis;
+
+    @Value("${oidc.http.pushed_authorization_request_timeout_millis}")
+    private long pushedAuthorizationRequestTimeoutMillis;
+
+    @Value("${oidc.http.tls_session_cache_size}")
+    private int tlsSessionCacheSize;
+
+    @Value("${oidc.http.tls_session_timeout_seconds}")
+    private int tlsSessionTimeoutSeconds;
+
+    @Bean
+    @ConditionalOnProperty(name = "oidc.http.engine", havingValue = "pooled", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager connectionManager() {
+        SSLContext sslContext = SSLContexts.createDefault();
+        sslContext.getClientSessionContext().setSessionCacheSize(tlsSessionCacheSize);
+        sslContext.getClientSessionContext().setSessionTimeout(tlsSessionTimeoutSeconds);
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(sslContext))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(registry);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) TimeUnit.SECONDS.toMillis(2));
+        return connectionManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "oidc.http.engine", havingValue = "pooled", matchIfMissing = true)
+    public ClientHttpRequestFactory pooledRequestFactory(PoolingHttpClientConnectionManager connectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeoutMillis)
+                .setSocketTimeout(readTimeoutMillis)
+                .setConnectionRequestTimeout(poolAcquireTimeoutMillis)
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .evictExpiredConnections()
+                //we never use client certificates, so connections can be shared regardless of the user
+                .disableConnectionState()
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "oidc.http.engine", havingValue = "simple")
+    public ClientHttpRequestFactory simpleRequestFactory() {
+        return new SimpleClientHttpRequestFactory();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(ClientHttpRequestFactory requestFactory) {
+        return new RestTemplate(requestFactory);
+    }
+
+    @Bean
+    public UpstreamClient upstreamClient(RestTemplate restTemplate, WebClient.Builder webClientBuilder,
+                                         ConcurrencyLimiters concurrencyLimiters, CircuitBreakers circuitBreakers,
+                                         MeterRegistry meterRegistry) {
+        UpstreamClient upstreamClient = "reactive".equals(mode) ?
+                reactiveUpstreamClient(webClientBuilder) : new BlockingUpstreamClient(restTemplate);
+        if (concurrencyLimiters.isEnabled()) {
+            upstreamClient = new LimitingUpstreamClient(upstreamClient, concurrencyLimiters);
+        }
+        upstreamClient = new CircuitBreakingUpstreamClient(upstreamClient, circuitBreakers, timeouts());
+        return new MeteredUpstreamClient(upstreamClient, meterRegistry);
+    }
+
+    private Map<String, Duration> timeouts() {
+        Map<String, Duration> timeouts = new HashMap<>();
+        timeouts.put(UpstreamClient.TOKEN, Duration.ofMillis(tokenTimeoutMillis));
+        timeouts.put(UpstreamClient.INTROSPECT, Duration.ofMillis(introspectTimeoutMillis));
+        timeouts.put(UpstreamClient.USERINFO, Duration.ofMillis(userinfoTimeoutMillis));
+        timeouts.put(UpstreamClient.PUSHED_AUTHORIZATION_REQUEST, Duration.ofMillis(pushedAuthorizationRequestTimeoutMillis));
+        return timeouts;
+    }
+
+    private UpstreamClient reactiveUpstreamClient(WebClient.Builder webClientBuilder) {
+        ConnectionProvider connectionProvider = ConnectionProvider.fixed("oidc-upstream", maxTotal, poolAcquireTimeoutMillis);
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .tcpConfiguration(tcpClient -> tcpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis));
+        WebClient webClient = webClientBuilder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        return new ReactiveUpstreamClient(webClient, Duration.ofMillis(readTimeoutMillis));
+    }
+}
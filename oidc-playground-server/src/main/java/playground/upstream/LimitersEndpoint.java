@@ -0,0 +1,23 @@
+package playground.upstream;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "limiters")
+public class LimitersEndpoint {
+
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    public LimitersEndpoint(ConcurrencyLimiters concurrencyLimiters) {
+        this.concurrencyLimiters = concurrencyLimiters;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> limiters() {
+        return concurrencyLimiters.snapshot();
+    }
+}
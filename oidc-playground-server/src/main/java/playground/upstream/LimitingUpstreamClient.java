@@ -0,0 +1,50 @@
+package playground.upstream;
+
+import org.springframework.http.RequestEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Guards every call of the delegate with the limiter of the endpoint. Client errors of the OP, like an invalid grant,
+ * say nothing about its health and do not lower the limit.
+ */
+public class LimitingUpstreamClient implements UpstreamClient {
+
+    private final UpstreamClient delegate;
+    private final ConcurrencyLimiters concurrencyLimiters;
+
+    public LimitingUpstreamClient(UpstreamClient delegate, ConcurrencyLimiters concurrencyLimiters) {
+        this.delegate = delegate;
+        this.concurrencyLimiters = concurrencyLimiters;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> exchange(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity) {
+        return limit(requestEntity, () -> delegate.exchange(endpoint, requestEntity));
+    }
+
+    @Override
+    public Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                             OutputStream outputStream) {
+        return limit(requestEntity, () -> delegate.stream(endpoint, requestEntity, outputStream));
+    }
+
+    private <T> Mono<T> limit(RequestEntity<MultiValueMap<String, String>> requestEntity, Supplier<Mono<T>> call) {
+        return concurrencyLimiters.limiter(requestEntity.getUrl()).acquire()
+                .flatMap(permit -> call.get()
+                        .doOnSuccess(result -> permit.success())
+                        .doOnError(e -> {
+                            if (e instanceof HttpClientErrorException) {
+                                permit.success();
+                            } else {
+                                permit.dropped();
+                            }
+                        })
+                        .doOnCancel(permit::ignore));
+    }
+}
@@ -0,0 +1,91 @@
+package playground.upstream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.RequestEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Times every call to the OP, tagged with the host, the grant type of the form (or "none" for introspection and
+ * userinfo) and the outcome. Calls rejected by the limiter or an open circuit are counted as well, so it must wrap the
+ * limiting and circuit breaking clients.
+ */
+public class MeteredUpstreamClient implements UpstreamClient {
+
+    static final String METRIC_NAME = "oidc.upstream.requests";
+
+    private final UpstreamClient delegate;
+    private final MeterRegistry meterRegistry;
+
+    public MeteredUpstreamClient(UpstreamClient delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> exchange(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity) {
+        return timed(requestEntity, () -> delegate.exchange(endpoint, requestEntity));
+    }
+
+    @Override
+    public Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                             OutputStream outputStream) {
+        return timed(requestEntity, () -> delegate.stream(endpoint, requestEntity, outputStream));
+    }
+
+    private <T> Mono<T> timed(RequestEntity<MultiValueMap<String, String>> requestEntity, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call.get()
+                    .doOnSuccess(result -> record(requestEntity, "success", start))
+                    .doOnError(e -> record(requestEntity, outcome(e), start));
+        });
+    }
+
+    private void record(RequestEntity<MultiValueMap<String, String>> requestEntity, String outcome, long start) {
+        String grantType = requestEntity.getBody() != null ? requestEntity.getBody().getFirst("grant_type") : null;
+        Tags tags = Tags.of(
+                "host", String.valueOf(requestEntity.getUrl().getHost()),
+                "grant_type", StringUtils.hasText(grantType) ? grantType : "none",
+                "outcome", outcome);
+        Timer.builder(METRIC_NAME)
+                .description("Calls to the token, introspection and userinfo endpoints of the OP")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String outcome(Throwable e) {
+        if (e instanceof HttpClientErrorException) {
+            return "client_error";
+        }
+        if (e instanceof HttpServerErrorException) {
+            return "server_error";
+        }
+        if (e instanceof ConcurrencyLimitExceededException) {
+            return "rejected";
+        }
+        if (e instanceof CircuitOpenException) {
+            return "circuit_open";
+        }
+        if (e instanceof TimeoutException) {
+            return "timeout";
+        }
+        if (e instanceof ResourceAccessException) {
+            return "io_error";
+        }
+        return "error";
+    }
+}
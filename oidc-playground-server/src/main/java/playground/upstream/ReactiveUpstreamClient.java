@@ -0,0 +1,79 @@
+package playground.upstream;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Non-blocking client, no thread is held while waiting for the OP.
+ */
+public class ReactiveUpstreamClient implements UpstreamClient {
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ReactiveUpstreamClient(WebClient webClient, Duration timeout) {
+        this.webClient = webClient;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<Map<String, Object>> exchange(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity) {
+        return webClient.method(requestEntity.getMethod())
+                .uri(requestEntity.getUrl())
+                .headers(headers -> headers.addAll(requestEntity.getHeaders()))
+                .body(BodyInserters.fromFormData(requestEntity.getBody()))
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> response.bodyToMono(byte[].class)
+                        .defaultIfEmpty(new byte[0])
+                        .map(body -> statusCodeException(response.statusCode(), response.headers().asHttpHeaders(), body)))
+                .bodyToMono(mapResponseType)
+                .timeout(timeout);
+    }
+
+    /**
+     * The buffers are written to the (blocking) output stream on the elastic scheduler and released right away, so
+     * no event loop thread waits for a slow client. The timeout ends with the response headers, a large body may take
+     * longer to reach a slow client.
+     */
+    @Override
+    public Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                             OutputStream outputStream) {
+        return webClient.method(requestEntity.getMethod())
+                .uri(requestEntity.getUrl())
+                .headers(headers -> headers.addAll(requestEntity.getHeaders()))
+                .body(BodyInserters.fromFormData(requestEntity.getBody()))
+                .exchange()
+                .timeout(timeout)
+                .flatMap(response -> response.statusCode().isError() ?
+                        response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .timeout(timeout)
+                                .flatMap(body -> Mono.<Void>error(statusCodeException(response.statusCode(),
+                                        response.headers().asHttpHeaders(), body))) :
+                        DataBufferUtils.write(response.bodyToFlux(DataBuffer.class).publishOn(Schedulers.elastic()), outputStream)
+                                .map(DataBufferUtils::release)
+                                .then());
+    }
+
+    private HttpStatusCodeException statusCodeException(HttpStatus status, HttpHeaders headers, byte[] body) {
+        return status.is5xxServerError() ?
+                HttpServerErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8) :
+                HttpClientErrorException.create(status, status.getReasonPhrase(), headers, body, StandardCharsets.UTF_8);
+    }
+}
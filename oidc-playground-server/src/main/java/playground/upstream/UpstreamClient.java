@@ -0,0 +1,48 @@
+package playground.upstream;
+
+import net.minidev.json.JSONObject;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.RequestEntity;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Executes form posts to the token, introspection and userinfo endpoints of the OP. Errors are signalled as the
+ * HttpStatusCodeException subclasses a RestTemplate throws, so the ErrorController handles both modes alike. The
+ * endpoint is one of the names below, the URL alone does not tell as it is configurable.
+ */
+public interface UpstreamClient {
+
+    ParameterizedTypeReference<Map<String, Object>> mapResponseType = new ParameterizedTypeReference<Map<String, Object>>() {
+    };
+
+    String TOKEN = "token";
+    String INTROSPECT = "introspect";
+    String USERINFO = "userinfo";
+    String PUSHED_AUTHORIZATION_REQUEST = "pushed_authorization_request";
+
+    Mono<Map<String, Object>> exchange(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity);
+
+    /**
+     * Writes the body of a successful response to the output stream as it is received, without parsing it. An error
+     * response is signalled before anything is written. This default still parses the response, the RestTemplate and
+     * WebClient based clients copy the bytes.
+     */
+    default Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                              OutputStream outputStream) {
+        return exchange(endpoint, requestEntity).flatMap(result -> Mono.<Void>fromRunnable(() -> {
+            try {
+                outputStream.write(JSONObject.toJSONString(result).getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+}
@@ -0,0 +1,73 @@
+package playground.web;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * A response body that is computed once, with a strong ETag derived from its content.
+ */
+public class CachedBody {
+
+    private final byte[] body;
+    private final MediaType contentType;
+    private final String eTag;
+
+    public CachedBody(byte[] body, MediaType contentType) {
+        this.body = body;
+        this.contentType = contentType;
+        this.eTag = eTag(body);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public MediaType getContentType() {
+        return contentType;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so a W/ prefix added by a proxy still matches.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*") || trimmed.equals(eTag) || trimmed.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 304 without a body when the client has the current version, otherwise the body.
+     */
+    public ResponseEntity<byte[]> response(String ifNoneMatch, CacheControl cacheControl) {
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+        }
+        return ResponseEntity.ok().contentType(contentType).eTag(eTag).cacheControl(cacheControl).body(body);
+    }
+
+    static String eTag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 27) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package playground.web;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the build of the React client, embedded in the jar with the embed-client Maven profile, from memory. The
+ * files with a content hash in their name never change and are cached for a year, everything else, like index.html,
+ * is revalidated with its ETag on every load. The gzip and brotli variants made by the client build are served to
+ * browsers that accept them.
+ * <p>
+ * Requests for the API are passed on, as are unknown files. Other unknown paths are routes of the client and get
+ * index.html.
+ */
+@Component
+@ConditionalOnProperty(name = "oidc.client_bundle.enabled", havingValue = "true")
+public class ClientBundleFilter extends OncePerRequestFilter {
+
+    private static final Log LOG = LogFactory.getLog(ClientBundleFilter.class);
+
+    private static final Pattern hashedFileName = Pattern.compile(".*\\.[0-9a-f]{8,}\\.(chunk\\.)?[a-z0-9]+$");
+
+    private static final String immutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().getHeaderValue() +
+            ", immutable";
+
+    private static final String revalidate = CacheControl.noCache().getHeaderValue();
+
+    private final String apiPath;
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    public ClientBundleFilter(@Value("${oidc.client_bundle.location}") String location,
+                              @Value("${spring.mvc.servlet.path:/}") String apiPath) throws IOException {
+        this.apiPath = apiPath.endsWith("/") ? apiPath : apiPath + "/";
+        load(location.endsWith("/") ? location : location + "/");
+        if (!assets.containsKey("/index.html")) {
+            throw new IllegalStateException(String.format("No index.html in %s, build the client first", location));
+        }
+        LOG.info(String.format("Serving %s files of the client bundle from %s", assets.size(), location));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || (path(request) + "/").startsWith(apiPath);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = path(request);
+        Asset asset = assets.get(path.equals("/") ? "/index.html" : path);
+        if (asset == null) {
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            if (fileName.contains(".")) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            asset = assets.get("/index.html");
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        String encoding = asset.encoding(acceptEncoding == null ? "" : acceptEncoding);
+        CachedBody body = asset.variants.get(encoding);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, asset.cacheControl);
+        response.setHeader(HttpHeaders.ETAG, body.getETag());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+        response.setContentType(body.getContentType().toString());
+        if (!encoding.equals(Asset.IDENTITY)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.setContentLength(body.getBody().length);
+        if ("GET".equals(request.getMethod())) {
+            response.getOutputStream().write(body.getBody());
+        }
+    }
+
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void load(String location) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        String root = resolver.getResource(location).getURL().toString();
+        Map<String, Resource> files = new HashMap<>();
+        for (Resource resource : resolver.getResources(location + "**/*")) {
+            String url = resource.getURL().toString();
+            if (resource.isReadable() && !url.endsWith("/")) {
+                files.put("/" + url.substring(root.length()), resource);
+            }
+        }
+        files.forEach((path, resource) -> {
+            if (path.endsWith(".gz") || path.endsWith(".br")) {
+                return;
+            }
+            MediaType contentType = MediaTypeFactory.getMediaType(path).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            if ("text".equals(contentType.getType()) || contentType.isCompatibleWith(MediaType.APPLICATION_JSON) ||
+                    path.endsWith(".js")) {
+                contentType = new MediaType(contentType, StandardCharsets.UTF_8);
+            }
+            Asset asset = new Asset(hashedFileName.matcher(path).matches() ? immutable : revalidate);
+            asset.variants.put(Asset.IDENTITY, new CachedBody(read(resource), contentType));
+            if (files.containsKey(path + ".br")) {
+                asset.variants.put(Asset.BROTLI, new CachedBody(read(files.get(path + ".br")), contentType));
+            }
+            if (files.containsKey(path + ".gz")) {
+                asset.variants.put(Asset.GZIP, new CachedBody(read(files.get(path + ".gz")), contentType));
+            }
+            assets.put(path, asset);
+        });
+    }
+
+    private static byte[] read(Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return StreamUtils.copyToByteArray(inputStream);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Asset {
+
+        private static final String IDENTITY = "identity";
+        private static final String BROTLI = "br";
+        private static final String GZIP = "gzip";
+
+        private final String cacheControl;
+        private final Map<String, CachedBody> variants = new HashMap<>();
+
+        private Asset(String cacheControl) {
+            this.cacheControl = cacheControl;
+        }
+
+        /**
+         * Brotli is preferred over gzip whenever the browser accepts both, whatever their q-values, as long as they are
+         * not 0.
+         */
+        private String encoding(String acceptEncoding) {
+            Map<String, Double> qualities = qualities(acceptEncoding);
+            if (variants.containsKey(BROTLI) && accepts(qualities, BROTLI)) {
+                return BROTLI;
+            }
+            if (variants.containsKey(GZIP) && accepts(qualities, GZIP)) {
+                return GZIP;
+            }
+            return IDENTITY;
+        }
+
+        private static boolean accepts(Map<String, Double> qualities, String coding) {
+            Double quality = qualities.containsKey(coding) ? qualities.get(coding) : qualities.get("*");
+            return quality != null && quality > 0;
+        }
+
+        /**
+         * The q-value of each coding in the Accept-Encoding header, 1 if it has none. An invalid q-value counts as 0.
+         */
+        private static Map<String, Double> qualities(String acceptEncoding) {
+            Map<String, Double> qualities = new HashMap<>();
+            for (String element : acceptEncoding.split(",")) {
+                String[] parts = element.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                if (coding.isEmpty()) {
+                    continue;
+                }
+                double quality = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.toLowerCase(Locale.ROOT).startsWith("q=")) {
+                        try {
+                            quality = Double.parseDouble(parameter.substring(2).trim());
+                        } catch (NumberFormatException e) {
+                            quality = 0;
+                        }
+                    }
+                }
+                qualities.put(coding, quality);
+            }
+            return qualities;
+        }
+    }
+}
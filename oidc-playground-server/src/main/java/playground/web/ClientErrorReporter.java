@@ -0,0 +1,157 @@
+package playground.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Errors reported by the client are put in a bounded buffer and logged in batches by a background thread, so a storm
+ * of client errors does not slow down the requests. Identical errors in a batch are logged once with their count,
+ * errors that do not fit in the buffer are dropped and counted.
+ */
+@Component
+public class ClientErrorReporter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClientErrorReporter.class);
+
+    //differ for every occurrence of the same error
+    private static final List<String> volatileFields = Arrays.asList("dateTime", "timestamp", "time", "userAgent");
+
+    private final ObjectMapper objectMapper;
+    private final String hostName;
+    private final BlockingQueue<Report> buffer;
+    private final int batchSize;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "client-error-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter accepted = Metrics.counter("oidc.client_errors", "result", "accepted");
+    private final Counter dropped = Metrics.counter("oidc.client_errors", "result", "dropped");
+
+    public ClientErrorReporter(ObjectMapper objectMapper,
+                               @Value("${oidc.error_report.capacity}") int capacity,
+                               @Value("${oidc.error_report.batch_size}") int batchSize,
+                               @Value("${oidc.error_report.flush_interval_millis}") long flushIntervalMillis) {
+        this.objectMapper = objectMapper;
+        this.hostName = hostName();
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        if (flushIntervalMillis > 0) {
+            flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean report(Map<String, Object> payload) {
+        boolean added = buffer.offer(new Report(payload, System.currentTimeMillis()));
+        (added ? accepted : dropped).increment();
+        return added;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flushSafely();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to flush client errors", e);
+        }
+    }
+
+    /**
+     * Logs the buffered errors in batches of batch_size and returns the number of occurrences of each error.
+     */
+    Map<String, Integer> flush() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        List<Report> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            Map<String, Group> groups = new LinkedHashMap<>();
+            batch.forEach(report -> groups.computeIfAbsent(fingerprint(report.payload), Group::new).add(report));
+            groups.values().forEach(group -> {
+                LOG.error("Client error on {} reported {} time(s) between {} and {} [{}]: {}", hostName, group.count,
+                        Instant.ofEpochMilli(group.first), Instant.ofEpochMilli(group.last),
+                        Integer.toHexString(group.fingerprint.hashCode()), group.fingerprint);
+                result.merge(group.fingerprint, group.count, Integer::sum);
+            });
+            batch.clear();
+        }
+        return result;
+    }
+
+    /**
+     * The payload without the fields that differ for every occurrence, with the keys sorted.
+     */
+    String fingerprint(Map<String, Object> payload) {
+        Map<String, Object> stable = new TreeMap<>(payload);
+        stable.keySet().removeAll(volatileFields);
+        try {
+            return objectMapper.writeValueAsString(stable);
+        } catch (JsonProcessingException e) {
+            return String.valueOf(stable);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+
+    private static class Report {
+
+        private final Map<String, Object> payload;
+        private final long receivedAt;
+
+        private Report(Map<String, Object> payload, long receivedAt) {
+            this.payload = payload;
+            this.receivedAt = receivedAt;
+        }
+    }
+
+    private static class Group {
+
+        private final String fingerprint;
+        private int count;
+        private long first = Long.MAX_VALUE;
+        private long last;
+
+        private Group(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        private void add(Report report) {
+            count++;
+            first = Math.min(first, report.receivedAt);
+            last = Math.max(last, report.receivedAt);
+        }
+    }
+}
@@ -4,18 +4,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.context.request.ServletWebRequest;
+import playground.upstream.CircuitOpenException;
+import playground.upstream.ConcurrencyLimitExceededException;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.GATEWAY_TIMEOUT;
+import static org.springframework.http.HttpStatus.PAYLOAD_TOO_LARGE;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 
 @RestController
 public class ErrorController implements org.springframework.boot.web.servlet.error.ErrorController {
@@ -40,19 +49,59 @@ public class ErrorController implements org.springframework.boot.web.servlet.err
         ServletWebRequest webRequest = new ServletWebRequest(request);
         Map<String, Object> result = this.errorAttributes.getErrorAttributes(webRequest, false);
 
-        LOG.error("Error has occurred: " + result);
-
         Throwable error = this.errorAttributes.getError(webRequest);
         boolean hasValidStatus = result.containsKey("status") && !result.get("status").equals(999);
         HttpStatus statusCode = hasValidStatus ? HttpStatus.resolve((Integer) result.get("status")) : BAD_REQUEST;
-        if (error != null) {
-            LOG.error("Exception in /error: ", error);
+        if (error == null) {
+            LOG.warn(String.format("Error %s for %s: %s", result.get("status"), result.get("path"), result.get("message")));
+        } else {
+            if (isExpected(error)) {
+                //overload and errors of the OP, the stack trace does not tell anything
+                LOG.warn(String.format("Error for %s: %s", result.get("path"), error));
+            } else {
+                LOG.error(String.format("Exception for %s", result.get("path")), error);
+            }
 
             result.put("details", error.getMessage());
 
+            if (error instanceof ConcurrencyLimitExceededException) {
+                result.put("status", SERVICE_UNAVAILABLE.value());
+                result.put("error", SERVICE_UNAVAILABLE.getReasonPhrase());
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(HttpHeaders.RETRY_AFTER, "1");
+                return new ResponseEntity<>(result, headers, SERVICE_UNAVAILABLE);
+            }
+
+            if (error instanceof CircuitOpenException) {
+                result.put("status", SERVICE_UNAVAILABLE.value());
+                result.put("error", SERVICE_UNAVAILABLE.getReasonPhrase());
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(((CircuitOpenException) error).getRetryAfterSeconds()));
+                return new ResponseEntity<>(result, headers, SERVICE_UNAVAILABLE);
+            }
+
+            if (isTimeout(error)) {
+                result.put("status", GATEWAY_TIMEOUT.value());
+                result.put("error", GATEWAY_TIMEOUT.getReasonPhrase());
+                return new ResponseEntity<>(result, GATEWAY_TIMEOUT);
+            }
+
+            if (NestedExceptionUtils.getMostSpecificCause(error) instanceof PayloadTooLargeException) {
+                result.put("status", PAYLOAD_TOO_LARGE.value());
+                result.put("error", PAYLOAD_TOO_LARGE.getReasonPhrase());
+                return new ResponseEntity<>(result, PAYLOAD_TOO_LARGE);
+            }
+
             if (error instanceof HttpServerErrorException) {
-                Map map = objectMapper.readValue(((HttpServerErrorException) error).getResponseBodyAsByteArray(), Map.class);
-                if (map.containsKey("status")) {
+                byte[] body = ((HttpServerErrorException) error).getResponseBodyAsByteArray();
+                Map map;
+                try {
+                    map = objectMapper.readValue(body, Map.class);
+                } catch (IOException e) {
+                    //not a JSON error response, e.g. the HTML error page of a proxy
+                    return new ResponseEntity<>(result, statusCode);
+                }
+                if (map.get("status") instanceof Integer) {
                     statusCode = HttpStatus.resolve((Integer) map.get("status"));
                 }
                 return new ResponseEntity<>(map, statusCode);
@@ -61,4 +110,23 @@ public class ErrorController implements org.springframework.boot.web.servlet.err
         return new ResponseEntity<>(result, statusCode);
     }
 
+    private boolean isExpected(Throwable error) {
+        return error instanceof ConcurrencyLimitExceededException || error instanceof CircuitOpenException ||
+                error instanceof HttpServerErrorException || isTimeout(error) ||
+                NestedExceptionUtils.getMostSpecificCause(error) instanceof PayloadTooLargeException;
+    }
+
+    /**
+     * The timeout of the endpoint, wrapped when a streaming call is blocked on, or the read timeout of the
+     * RestTemplate, wrapped in a ResourceAccessException.
+     */
+    private boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
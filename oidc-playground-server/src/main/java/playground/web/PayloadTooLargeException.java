@@ -0,0 +1,10 @@
+package playground.web;
+
+import java.io.IOException;
+
+public class PayloadTooLargeException extends IOException {
+
+    public PayloadTooLargeException(long maxBodyBytes) {
+        super(String.format("Request body exceeds the maximum of %s bytes", maxBodyBytes));
+    }
+}
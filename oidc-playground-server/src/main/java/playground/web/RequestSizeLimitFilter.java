@@ -0,0 +1,111 @@
+package playground.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Rejects request bodies larger than oidc.request.max_body_bytes. A declared Content-Length is checked up front,
+ * chunked bodies are counted while they are read.
+ */
+@Component
+public class RequestSizeLimitFilter extends OncePerRequestFilter {
+
+    private final long maxBodyBytes;
+
+    public RequestSizeLimitFilter(@Value("${oidc.request.max_body_bytes}") long maxBodyBytes) {
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        if (contentLength > maxBodyBytes) {
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE,
+                    String.format("Request body of %s bytes exceeds the maximum of %s bytes", contentLength, maxBodyBytes));
+            return;
+        }
+        filterChain.doFilter(contentLength == -1 ? new LimitedRequest(request, maxBodyBytes) : request, response);
+    }
+
+    private static class LimitedRequest extends HttpServletRequestWrapper {
+
+        private final long maxBodyBytes;
+        private ServletInputStream inputStream;
+
+        private LimitedRequest(HttpServletRequest request, long maxBodyBytes) {
+            super(request);
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new LimitedInputStream(super.getInputStream(), maxBodyBytes);
+            }
+            return inputStream;
+        }
+    }
+
+    private static class LimitedInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private final long maxBodyBytes;
+        private long count;
+
+        private LimitedInputStream(ServletInputStream delegate, long maxBodyBytes) {
+            this.delegate = delegate;
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        private void count(int read) throws IOException {
+            count += read;
+            if (count > maxBodyBytes) {
+                throw new PayloadTooLargeException(maxBodyBytes);
+            }
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
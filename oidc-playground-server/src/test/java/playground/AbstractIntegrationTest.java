@@ -19,7 +19,9 @@ import java.nio.charset.Charset;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
-        properties = {"oidc.discovery_endpoint=classpath:/discovery_endpoint.json"})
+        properties = {"oidc.discovery_endpoint=classpath:/discovery_endpoint.json",
+                //tests deliberately fail the OP, see CircuitBreakerOidcTest for the circuit breaker itself
+                "oidc.circuit_breaker.enabled=false"})
 public abstract class AbstractIntegrationTest implements URLSupport {
 
     @LocalServerPort
@@ -5,6 +5,7 @@ import org.junit.Test;
 import static io.restassured.RestAssured.given;
 import static org.apache.http.HttpStatus.SC_NOT_FOUND;
 import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 
 public class ApplicationTest extends AbstractIntegrationTest {
@@ -19,6 +20,34 @@ public class ApplicationTest extends AbstractIntegrationTest {
                 .body("status", equalTo("UP"));
     }
 
+    @Test
+    public void limiters() throws Exception {
+        given()
+                .when()
+                .get("/oidc/api/actuator/limiters")
+                .then()
+                .statusCode(SC_OK);
+    }
+
+    @Test
+    public void prometheus() throws Exception {
+        given()
+                .when()
+                .get("/oidc/api/actuator/prometheus")
+                .then()
+                .statusCode(SC_OK)
+                .body(containsString("jvm_memory_used_bytes"));
+    }
+
+    @Test
+    public void cachesNotExposed() throws Exception {
+        given()
+                .when()
+                .get("/oidc/api/actuator/oidccaches")
+                .then()
+                .statusCode(SC_NOT_FOUND);
+    }
+
     @Test
     public void notFound() throws Exception {
         given()
@@ -0,0 +1,58 @@
+package playground.api;
+
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class AuthorizationUrlBuilderTest {
+
+    @Test
+    public void encodeLikeURLEncoder() throws Exception {
+        String[] values = {"", "abcXYZ019-_.*", "a b+c&d=e/f?g#h%i~j", "{\"id_token\":{\"email\":null}}",
+                "\u00e9\u00fc\u00df", "\u20ac \u4e2d\u6587", "\uD83D\uDE00 smile", "\uD800 unpaired"};
+        for (String value : values) {
+            StringBuilder out = new StringBuilder();
+            AuthorizationUrlBuilder.encode(value, out);
+            assertEquals(value, URLEncoder.encode(value, "UTF-8"), out.toString());
+        }
+        StringBuilder ascii = new StringBuilder();
+        IntStream.range(0, 128).forEach(c -> ascii.append((char) c));
+        StringBuilder out = new StringBuilder();
+        AuthorizationUrlBuilder.encode(ascii.toString(), out);
+        assertEquals(URLEncoder.encode(ascii.toString(), "UTF-8"), out.toString());
+    }
+
+    @Test
+    public void fixedOrder() throws Exception {
+        Map<String, String> parameters = new HashMap<>();
+        parameters.put("zzz", "last");
+        parameters.put("state", "s");
+        parameters.put("scope", "openid profile");
+        parameters.put("client_id", "playground_client");
+        parameters.put("response_type", "code");
+        parameters.put("nonce", " ");
+        parameters.put("aaa", "extra");
+
+        String url = new AuthorizationUrlBuilder(new URI("https://op/authorize")).build(parameters);
+
+        assertEquals("https://op/authorize?response_type=code&client_id=playground_client&scope=openid+profile" +
+                "&state=s&aaa=extra&zzz=last", url);
+    }
+
+    @Test
+    public void endpointWithQuery() throws Exception {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("response_type", "code");
+
+        String url = new AuthorizationUrlBuilder(new URI("https://op/authorize?tenant=test#fragment")).build(parameters);
+
+        assertEquals("https://op/authorize?tenant=test&response_type=code", url);
+    }
+}
@@ -0,0 +1,66 @@
+package playground.api;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+@TestPropertySource(properties = {
+        "oidc.circuit_breaker.enabled=true",
+        "oidc.circuit_breaker.window_size=2",
+        "oidc.circuit_breaker.minimum_calls=2",
+        "oidc.circuit_breaker.open_millis=60000"})
+public class CircuitBreakerOidcTest extends AbstractIntegrationTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    @Test
+    public void openAfterFailures() {
+        stubFor(post(urlPathMatching("/introspect"))
+                .willReturn(aResponse()
+                        .withStatus(500)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"server_error\"}")));
+
+        introspect().then().statusCode(500);
+        introspect().then().statusCode(500);
+        introspect()
+                .then()
+                .statusCode(503)
+                .header(HttpHeaders.RETRY_AFTER, "60")
+                .body("status", equalTo(503))
+                .body("details", containsString("http://localhost:8093"));
+
+        verify(2, postRequestedFor(urlPathMatching("/introspect")));
+
+        //the OP is in trouble, not this node
+        given()
+                .get("/oidc/api/actuator/health")
+                .then()
+                .statusCode(200)
+                .body("status", equalTo("UP"));
+    }
+
+    private Response introspect() {
+        return given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("introspect_endpoint", "http://localhost:8093/introspect").p("token", "token"))
+                .post("/oidc/api/introspect");
+    }
+}
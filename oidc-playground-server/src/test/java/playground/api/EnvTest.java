@@ -22,6 +22,21 @@ public class EnvTest extends AbstractIntegrationTest {
                 .contentType("text/css");
     }
 
+    @Test
+    public void disclaimerNotModified() {
+        String eTag = given()
+                .get("oidc/api/disclaimer")
+                .then()
+                .header("Cache-Control", "no-cache")
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", eTag)
+                .get("oidc/api/disclaimer")
+                .then()
+                .statusCode(304);
+    }
+
     @Test
     public void error() {
         given()
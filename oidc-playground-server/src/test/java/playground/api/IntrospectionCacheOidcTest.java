@@ -0,0 +1,67 @@
+package playground.api;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+@TestPropertySource(properties = "oidc.introspection_cache.enabled=true")
+public class IntrospectionCacheOidcTest extends AbstractIntegrationTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    @Test
+    public void introspectOmitAuthentication() {
+        stubFor(post(urlPathMatching("/introspect"))
+                .withHeader("Authorization", matching("Basic .+"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"active\":true}")));
+        stubFor(post(urlPathMatching("/introspect"))
+                .withHeader("Authorization", absent())
+                .willReturn(aResponse()
+                        .withStatus(401)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"invalid_client\"}")));
+
+        introspect(false)
+                .then()
+                .statusCode(200)
+                .body("result.active", equalTo(true))
+                .body("cached", equalTo(false));
+        //client errors of the OP are not mapped to their status, the details tell it was a 401
+        introspect(true)
+                .then()
+                .statusCode(500)
+                .body("details", containsString("401"));
+
+        verify(2, postRequestedFor(urlPathMatching("/introspect")));
+    }
+
+    private Response introspect(boolean omitAuthentication) {
+        return given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap()
+                        .p("introspect_endpoint", "http://localhost:8093/introspect")
+                        .p("token", "introspect_cache_token")
+                        .p("omitAuthentication", omitAuthentication))
+                .post("/oidc/api/introspect");
+    }
+}
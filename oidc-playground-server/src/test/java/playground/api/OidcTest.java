@@ -23,17 +23,25 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod.S256;
 import static io.restassured.RestAssured.given;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static playground.api.Oidc.mapTypeReference;
 
@@ -104,6 +112,89 @@ public class OidcTest extends AbstractIntegrationTest {
         assertEquals(expected, queryParams);
     }
 
+    @Test
+    public void authorizePushed() {
+        stubFor(post(urlPathMatching("/par"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"request_uri\":\"urn:ietf:params:oauth:request_uri:6esc_11ACC5bwc014ltc14eY22c\",\"expires_in\":60}")));
+        Map<String, Object> body = new FluentMap()
+                .p("authorization_endpoint", "http://localhost:8093/authorize")
+                .p("pushed_authorization_request_endpoint", "http://localhost:8093/par")
+                .p("response_type", "code")
+                .p("scope", asList("openid", "groups"))
+                .p("claims", asList("email", "edumember_is_member_of"))
+                .p("nonce", "some_nonce")
+                .p("pushed", true);
+
+        Map<String, String> queryParams = doPostForAuthorize(body, "authorization_code");
+
+        Map<String, Object> expected = new FluentMap()
+                .p("client_id", "playground_client")
+                .p("request_uri", "urn:ietf:params:oauth:request_uri:6esc_11ACC5bwc014ltc14eY22c");
+        assertEquals(expected, queryParams);
+
+        verify(postRequestedFor(urlPathEqualTo("/par"))
+                .withHeader("Authorization", matching("Basic .+"))
+                .withRequestBody(containing("scope=openid+groups"))
+                .withRequestBody(containing("nonce=some_nonce")));
+    }
+
+    @Test
+    public void authorizePushedClientSecretPost() {
+        stubFor(post(urlPathMatching("/par"))
+                .willReturn(aResponse()
+                        .withStatus(201)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"request_uri\":\"urn:ietf:params:oauth:request_uri:6esc_11ACC5bwc014ltc14eY22c\",\"expires_in\":60}")));
+        Map<String, Object> body = new FluentMap()
+                .p("authorization_endpoint", "http://localhost:8093/authorize")
+                .p("pushed_authorization_request_endpoint", "http://localhost:8093/par")
+                .p("response_type", "code")
+                .p("token_endpoint_auth_method", "client_secret_post")
+                .p("client_secret", "secret")
+                .p("pushed", true);
+
+        doPostForAuthorize(body, "authorization_code");
+
+        verify(postRequestedFor(urlPathEqualTo("/par"))
+                .withoutHeader("Authorization")
+                .withRequestBody(containing("client_id=playground_client"))
+                .withRequestBody(containing("client_secret=secret")));
+    }
+
+    @Test
+    public void authorizeWithSignedJWTAlgorithm() throws ParseException {
+        for (String algorithm : asList("ES256", "EdDSA")) {
+            Map<String, Object> body = new FluentMap()
+                    .p("authorization_endpoint", "http://localhost:8093/authorize")
+                    .p("response_type", "code")
+                    .p("scope", singletonList("openid"))
+                    .p("signedJWT", true)
+                    .p("signedJWTAlgorithm", algorithm);
+
+            Map<String, String> queryParams = doPostForAuthorize(body, "authorization_code");
+
+            SignedJWT signedJWT = SignedJWT.parse(queryParams.get("request"));
+            assertEquals(algorithm, signedJWT.getHeader().getAlgorithm().getName());
+        }
+    }
+
+    @Test
+    public void authorizeWithUnsupportedSignedJWTAlgorithm() {
+        Map<String, Object> body = new FluentMap()
+                .p("authorization_endpoint", "http://localhost:8093/authorize")
+                .p("response_type", "code")
+                .p("signedJWT", true)
+                .p("signedJWTAlgorithm", "HS256");
+
+        doPost(body, "authorization_code")
+                .then()
+                .statusCode(400)
+                .body("details", containsString("HS256"));
+    }
+
     @Test
     public void implicit() {
         Map<String, Object> body = new FluentMap()
@@ -198,6 +289,23 @@ public class OidcTest extends AbstractIntegrationTest {
         assertEquals(1, certs.size());
     }
 
+    @Test
+    public void publishClientJwkNotModified() {
+        String eTag = given()
+                .get("/oidc/api/certs")
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", "max-age=300, public")
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", eTag)
+                .get("/oidc/api/certs")
+                .then()
+                .statusCode(304)
+                .header("ETag", eTag);
+    }
+
     @Test
     public void clientCredentials() throws IOException {
         doToken("client_credentials", "client_credentials");
@@ -223,6 +331,70 @@ public class OidcTest extends AbstractIntegrationTest {
         doForwardPost("/userinfo", "userinfo_endpoint");
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void streamIntrospect() throws IOException {
+        List<String> groups = IntStream.range(0, 5000)
+                .mapToObj(i -> "urn:collab:group:example.com:group_" + i)
+                .collect(Collectors.toList());
+        Map<String, Object> introspection = new FluentMap()
+                .p("active", true)
+                .p("sub", "user")
+                .p("edumember_is_member_of", groups);
+        stubFor(post(urlPathMatching("/introspect"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(objectMapper.writeValueAsString(introspection))));
+
+        Map<String, Object> result = given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .queryParam("stream", true)
+                .body(new FluentMap().p("introspect_endpoint", "http://localhost:8093/introspect").p("token", "token"))
+                .post("/oidc/api/introspect")
+                .as(mapTypeRef);
+
+        assertEquals(introspection, result.get("result"));
+        assertEquals("http://localhost:8093/introspect", result.get("request_url"));
+        assertEquals("token", ((Map<String, Object>) result.get("request_body")).get("token"));
+        assertEquals("XXX", ((Map<String, Object>) result.get("request_headers")).get("Authorization"));
+    }
+
+    @Test
+    public void streamUserinfoEmptyBody() {
+        stubFor(post(urlPathMatching("/userinfo"))
+                .willReturn(aResponse().withStatus(200)));
+
+        Map<String, Object> result = given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .queryParam("stream", true)
+                .body(new FluentMap().p("userinfo_endpoint", "http://localhost:8093/userinfo").p("token", "token"))
+                .post("/oidc/api/userinfo")
+                .as(mapTypeRef);
+
+        assertEquals(Collections.emptyMap(), result.get("result"));
+    }
+
+    @Test
+    public void streamUserinfoUpstreamError() {
+        stubFor(post(urlPathMatching("/userinfo"))
+                .willReturn(aResponse()
+                        .withStatus(401)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"invalid_token\"}")));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .queryParam("stream", true)
+                .body(new FluentMap().p("userinfo_endpoint", "http://localhost:8093/userinfo").p("token", "token"))
+                .post("/oidc/api/userinfo")
+                .then()
+                .statusCode(500)
+                .body("details", containsString("401"));
+    }
+
     private void doForwardPost(String path, String endpoint) {
         stubFor(post(urlPathMatching(path))
                 .willReturn(aResponse()
@@ -292,6 +464,46 @@ public class OidcTest extends AbstractIntegrationTest {
         assertEquals("playground_client", payload.get("aud"));
     }
 
+    @Test
+    public void decodeJwtTokenWithVerification() throws IOException {
+        Map<String, Object> map = objectMapper.readValue(new ClassPathResource("oidc_response.json").getInputStream(), mapTypeReference);
+        String idToken = (String) map.get("id_token");
+
+        Map<String, Map<String, Object>> result = given()
+                .accept(ContentType.JSON)
+                .queryParam("jwt", idToken)
+                .queryParam("verify", true)
+                .queryParam("nonce", "nonce123456789")
+                .get("oidc/api/decode_jwt")
+                .as(new TypeRef<Map<String, Map<String, Object>>>() {
+                });
+
+        //the keys of the OP in the discovery document can not be fetched and the token has expired
+        Map<String, Object> verification = result.get("verification");
+        assertEquals(false, verification.get("valid"));
+        assertTrue(verification.containsKey("duration_micros"));
+    }
+
+    @Test
+    public void decodeJwtTokens() throws IOException {
+        Map<String, Object> map = objectMapper.readValue(new ClassPathResource("oidc_response.json").getInputStream(), mapTypeReference);
+        String idToken = (String) map.get("id_token");
+        String uuid = "53f9a596-12fd-4a0e-92b8-04cfd60de58d";
+
+        List<Object> result = given()
+                .header("Content-type", "application/json")
+                .accept(ContentType.JSON)
+                .body(Collections.singletonMap("tokens", asList(idToken, uuid, idToken)))
+                .post("oidc/api/decode_jwt")
+                .as(new TypeRef<List<Object>>() {
+                });
+
+        assertEquals(3, result.size());
+        assertEquals("oidc", ((Map) ((Map) result.get(0)).get("header")).get("kid"));
+        assertEquals(uuid, result.get(1));
+        assertEquals(result.get(0), result.get(2));
+    }
+
     @Test
     public void decodeNonJwtToken() throws IOException {
         String uuid = "53f9a596-12fd-4a0e-92b8-04cfd60de58d";
@@ -313,6 +525,41 @@ public class OidcTest extends AbstractIntegrationTest {
         assertEquals(S256, CodeChallengeMethod.parse((String) result.get("codeChallengeMethod")));
     }
 
+    @Test
+    public void authorizationParameters() {
+        Map<String, Object> result = doPost(new FluentMap().p("codeChallengeMethod", "plain"), "authorization_parameters")
+                .as(mapTypeRef);
+
+        assertEquals(result.get("codeVerifier"), result.get("codeChallenge"));
+        assertEquals(43, ((String) result.get("nonce")).length());
+        assertEquals(43, ((String) result.get("state")).length());
+        assertNotEquals(result.get("nonce"), result.get("state"));
+    }
+
+    @Test
+    public void authorizeWithTooManyScopes() {
+        Map<String, Object> body = new FluentMap()
+                .p("authorization_endpoint", "http://localhost:8093/authorize")
+                .p("response_type", "code")
+                .p("scope", IntStream.range(0, 501).mapToObj(i -> "scope_" + i).collect(Collectors.toList()));
+
+        doPost(body, "authorization_code")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    public void payloadTooLarge() {
+        Map<String, Object> body = new FluentMap()
+                .p("authorization_endpoint", "http://localhost:8093/authorize")
+                .p("response_type", "code")
+                .p("nonce", String.join("", Collections.nCopies(300_000, "x")));
+
+        doPost(body, "authorization_code")
+                .then()
+                .statusCode(413);
+    }
+
     private Map<String, String> doPostForAuthorize(Map<String, Object> body, String path) {
         String url = doPost(body, path)
                 .then()
@@ -0,0 +1,134 @@
+package playground.api;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.restassured.http.ContentType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+@TestPropertySource(properties = {
+        "oidc.providers.local.discovery_endpoint=classpath:/provider_discovery.json",
+        "oidc.providers.local.client_id=local_client",
+        "oidc.providers.local.secret=local_secret",
+        "oidc.providers.local.resource_server_id=local_resource_server",
+        "oidc.providers.local.resource_server_secret=local_resource_server_secret"
+})
+public class ProviderOidcTest extends AbstractIntegrationTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    @Test
+    public void providers() {
+        given()
+                .get("/oidc/api/providers")
+                .then()
+                .statusCode(200)
+                .body("", hasItems("default", "local"));
+    }
+
+    @Test
+    public void discovery() {
+        given()
+                .get("/oidc/api/discovery?provider=local")
+                .then()
+                .statusCode(200)
+                .body("issuer", is("http://localhost:8093"));
+    }
+
+    @Test
+    public void introspect() {
+        stubFor(post(urlPathEqualTo("/introspect"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"active\":false}")));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("provider", "local").p("token", "provider-token"))
+                .post("/oidc/api/introspect")
+                .then()
+                .statusCode(200)
+                .body("request_url", is("http://localhost:8093/introspect"));
+
+        String basic = Base64.getEncoder().encodeToString("local_resource_server:local_resource_server_secret".getBytes());
+        verify(postRequestedFor(urlPathEqualTo("/introspect")).withHeader("Authorization", equalTo("Basic " + basic)));
+    }
+
+    @Test
+    public void authorize() {
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("provider", "local").p("response_type", "code").p("state", "example"))
+                .post("/oidc/api/authorization_code")
+                .then()
+                .statusCode(200)
+                .body("url", startsWith("http://localhost:8093/authorize?"))
+                .body("url", containsString("client_id=local_client"));
+    }
+
+    @Test
+    public void verifyJwt() throws JOSEException {
+        RSAKey rsaKey = new RSAKeyGenerator(2048).keyID("local_key").generate();
+        stubFor(get(urlPathEqualTo("/certs"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new JWKSet(rsaKey.toPublicJWK()).toString())));
+        SignedJWT idToken = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("local_key").build(),
+                new JWTClaimsSet.Builder()
+                        .issuer("http://localhost:8093")
+                        .audience("local_client")
+                        .expirationTime(new Date(System.currentTimeMillis() + 3600 * 1000L))
+                        .build());
+        idToken.sign(new RSASSASigner(rsaKey));
+
+        given()
+                .queryParam("jwt", idToken.serialize())
+                .queryParam("verify", true)
+                .queryParam("provider", "local")
+                .get("/oidc/api/decode_jwt")
+                .then()
+                .statusCode(200)
+                .body("verification.valid", is(true));
+    }
+
+    @Test
+    public void unknownProvider() {
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("provider", "nope").p("token", "token"))
+                .post("/oidc/api/introspect")
+                .then()
+                .statusCode(400);
+    }
+}
@@ -0,0 +1,132 @@
+package playground.api;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.restassured.http.ContentType;
+import io.restassured.mapper.TypeRef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static io.restassured.RestAssured.given;
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@TestPropertySource(properties = "oidc.http.mode=reactive")
+public class ReactiveOidcTest extends AbstractIntegrationTest {
+
+    private TypeRef<Map<String, Object>> mapTypeRef = new TypeRef<Map<String, Object>>() {
+    };
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void token() throws IOException {
+        stubFor(post(urlPathMatching("/token"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(readFile("oidc_response.json"))));
+
+        Map<String, Object> body = new FluentMap()
+                .p("token_endpoint", "http://localhost:8093/token")
+                .p("grant_type", "client_credentials")
+                .p("scope", asList("openid", "groups"));
+
+        Map<String, Object> map = given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post("/oidc/api/client_credentials")
+                .as(mapTypeRef);
+
+        assertEquals("http://localhost:8093/token", map.get("request_url"));
+        assertEquals("XXX", ((Map<String, Object>) map.get("request_headers")).get("Authorization"));
+        assertEquals("client_credentials", ((Map<String, Object>) map.get("request_body")).get("grant_type"));
+        assertTrue(((Map<String, Object>) map.get("result")).containsKey("access_token"));
+    }
+
+    @Test
+    public void userinfo() {
+        stubFor(post(urlPathMatching("/userinfo"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"sub\":\"user\"}")));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("userinfo_endpoint", "http://localhost:8093/userinfo").p("token", "token"))
+                .post("/oidc/api/userinfo")
+                .then()
+                .statusCode(200)
+                .body("result.sub", equalTo("user"))
+                .body("request_body.access_token", equalTo("token"));
+    }
+
+    @Test
+    public void upstreamServerError() {
+        stubFor(post(urlPathMatching("/introspect"))
+                .willReturn(aResponse()
+                        .withStatus(500)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"server_error\"}")));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("introspect_endpoint", "http://localhost:8093/introspect").p("token", "token"))
+                .post("/oidc/api/introspect")
+                .then()
+                .statusCode(500)
+                .body("error", equalTo("server_error"));
+    }
+
+    @Test
+    public void streamUserinfo() {
+        stubFor(post(urlPathMatching("/userinfo"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"sub\":\"user\"}")));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .queryParam("stream", true)
+                .body(new FluentMap().p("userinfo_endpoint", "http://localhost:8093/userinfo").p("token", "token"))
+                .post("/oidc/api/userinfo")
+                .then()
+                .statusCode(200)
+                .body("result.sub", equalTo("user"))
+                .body("request_body.access_token", equalTo("token"));
+    }
+
+    @Test
+    public void streamUpstreamServerError() {
+        stubFor(post(urlPathMatching("/introspect"))
+                .willReturn(aResponse()
+                        .withStatus(500)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"server_error\"}")));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .queryParam("stream", true)
+                .body(new FluentMap().p("introspect_endpoint", "http://localhost:8093/introspect").p("token", "token"))
+                .post("/oidc/api/introspect")
+                .then()
+                .statusCode(500)
+                .body("error", equalTo("server_error"));
+    }
+}
@@ -0,0 +1,77 @@
+package playground.api;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import io.restassured.http.ContentType;
+import io.restassured.mapper.TypeRef;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static io.restassured.RestAssured.given;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+@TestPropertySource(properties = "oidc.token_cache.enabled=true")
+public class TokenCacheOidcTest extends AbstractIntegrationTest {
+
+    private TypeRef<Map<String, Object>> mapTypeRef = new TypeRef<Map<String, Object>>() {
+    };
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    @Test
+    public void clientCredentials() throws IOException {
+        stubFor(post(urlPathMatching("/token"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(readFile("oidc_response.json"))));
+
+        Map<String, Object> body = new FluentMap()
+                .p("token_endpoint", "http://localhost:8093/token")
+                .p("grant_type", "client_credentials")
+                .p("scope", asList("openid", "groups"));
+
+        assertEquals(false, clientCredentials(body).get("cached"));
+        assertEquals(true, clientCredentials(body).get("cached"));
+
+        verify(1, postRequestedFor(urlPathMatching("/token")));
+    }
+
+    @Test
+    public void clientCredentialsOmitAuthentication() throws IOException {
+        stubFor(post(urlPathMatching("/token"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(readFile("oidc_response.json"))));
+
+        FluentMap body = new FluentMap()
+                .p("token_endpoint", "http://localhost:8093/token")
+                .p("grant_type", "client_credentials")
+                .p("scope", asList("openid", "omit"));
+
+        assertEquals(false, clientCredentials(body).get("cached"));
+        assertEquals(false, clientCredentials(body.p("omitAuthentication", true)).get("cached"));
+
+        verify(2, postRequestedFor(urlPathMatching("/token")));
+    }
+
+    private Map<String, Object> clientCredentials(Map<String, Object> body) {
+        return given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post("/oidc/api/client_credentials")
+                .as(mapTypeRef);
+    }
+}
@@ -0,0 +1,33 @@
+package playground.cache;
+
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import static io.restassured.RestAssured.given;
+import static org.apache.http.HttpStatus.SC_NO_CONTENT;
+import static org.apache.http.HttpStatus.SC_OK;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+@TestPropertySource(properties = {
+        "management.endpoint.oidccaches.enabled=true",
+        "management.endpoints.web.exposure.include=oidccaches"})
+public class CachesEndpointTest extends AbstractIntegrationTest {
+
+    @Test
+    public void caches() throws Exception {
+        given()
+                .when()
+                .get("/oidc/api/actuator/oidccaches")
+                .then()
+                .statusCode(SC_OK)
+                .body("introspection.enabled", equalTo(false))
+                .body("jwt_decode.size", notNullValue());
+        given()
+                .when()
+                .delete("/oidc/api/actuator/oidccaches/introspection")
+                .then()
+                .statusCode(SC_NO_CONTENT);
+    }
+}
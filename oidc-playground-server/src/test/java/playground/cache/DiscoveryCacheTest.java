@@ -0,0 +1,104 @@
+package playground.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.commons.io.IOUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.UrlResource;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+
+public class DiscoveryCacheTest {
+
+    private static final String ISSUER = "https://org.openconext.oidc.ng";
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void servesFromMemory() throws IOException {
+        stubDiscovery(0);
+        DiscoveryCache discoveryCache = discoveryCache();
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ISSUER, discoveryCache.get().get("issuer"));
+        }
+        assertEquals(ISSUER, objectMapper.readTree(discoveryCache.bytes()).get("issuer").asText());
+        verify(1, getRequestedFor(urlPathEqualTo("/discovery")));
+    }
+
+    @Test
+    public void concurrentMissesShareOneFetch() throws IOException {
+        stubDiscovery(250);
+        DiscoveryCache discoveryCache = discoveryCache();
+
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(CompletableFuture.supplyAsync(() -> discoveryCache.get().get("issuer")));
+        }
+        futures.forEach(future -> assertEquals(ISSUER, future.join()));
+        verify(1, getRequestedFor(urlPathEqualTo("/discovery")));
+    }
+
+    @Test
+    public void revalidatesWithETag() throws IOException {
+        stubDiscovery(0);
+        stubFor(get(urlPathEqualTo("/discovery"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+        DiscoveryCache discoveryCache = discoveryCache();
+
+        discoveryCache.get();
+        discoveryCache.refresh().join();
+
+        assertEquals(ISSUER, discoveryCache.get().get("issuer"));
+        verify(1, getRequestedFor(urlPathEqualTo("/discovery")).withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    public void servesLastGoodCopyWhenUpstreamFails() throws IOException {
+        stubDiscovery(0);
+        DiscoveryCache discoveryCache = discoveryCache();
+        discoveryCache.get();
+
+        stubFor(get(urlPathEqualTo("/discovery")).willReturn(aResponse().withStatus(500)));
+        try {
+            discoveryCache.refresh().join();
+        } catch (CompletionException e) {
+            //expected
+        }
+        assertEquals(ISSUER, discoveryCache.get().get("issuer"));
+    }
+
+    private DiscoveryCache discoveryCache() throws IOException {
+        return new DiscoveryCache(new UrlResource("http://localhost:8093/discovery"), objectMapper, 300, 30, 1000);
+    }
+
+    private void stubDiscovery(int delayMillis) throws IOException {
+        String body = IOUtils.toString(new ClassPathResource("discovery_endpoint.json").getInputStream(), Charset.defaultCharset());
+        stubFor(get(urlPathEqualTo("/discovery"))
+                .willReturn(aResponse()
+                        .withFixedDelay(delayMillis)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(body)));
+    }
+}
@@ -0,0 +1,117 @@
+package playground.cache;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class IntrospectionCacheTest {
+
+    private IntrospectionCache introspectionCache = new IntrospectionCache(true, 100, 60, 5);
+
+    private AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void cached() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        Map<String, Object> first = introspect("token", active(exp)).block();
+        Map<String, Object> second = introspect("token", active(exp)).block();
+
+        assertEquals(false, first.get("cached"));
+        assertEquals(true, second.get("cached"));
+        assertEquals(1, calls.get());
+        assertEquals(1L, introspectionCache.size());
+    }
+
+    @Test
+    public void differentToken() {
+        long exp = System.currentTimeMillis() / 1000 + 3600;
+        introspect("token", active(exp)).block();
+        Map<String, Object> result = introspect("other", active(exp)).block();
+
+        assertEquals(false, result.get("cached"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void expired() {
+        long exp = System.currentTimeMillis() / 1000 - 1;
+        introspect("token", active(exp)).block();
+        Map<String, Object> result = introspect("token", active(exp)).block();
+
+        assertEquals(false, result.get("cached"));
+        assertEquals(2, calls.get());
+        assertEquals(0L, introspectionCache.size());
+    }
+
+    @Test
+    public void timeToLive() {
+        long now = System.currentTimeMillis() / 1000;
+        long maxTtl = 60_000_000_000L;
+
+        assertEquals(maxTtl, introspectionCache.timeToLiveNanos(envelope(active(now + 3600))));
+        assertEquals(maxTtl, introspectionCache.timeToLiveNanos(envelope(Collections.singletonMap("active", true))));
+        assertEquals(5_000_000_000L, introspectionCache.timeToLiveNanos(envelope(Collections.singletonMap("active", false))));
+        long untilExp = introspectionCache.timeToLiveNanos(envelope(active(now + 10)));
+        assertEquals(true, untilExp > 0 && untilExp <= 10_000_000_000L);
+    }
+
+    @Test
+    public void inactiveCached() {
+        Map<String, Object> inactive = Collections.singletonMap("active", false);
+        introspect("token", inactive).block();
+        Map<String, Object> result = introspect("token", inactive).block();
+
+        assertEquals(true, result.get("cached"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void errorNotCached() {
+        Mono<Map<String, Object>> failing = introspectionCache.get("http://localhost/introspect", "token", "client_secret_basic", () -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("upstream"));
+        });
+        try {
+            failing.block();
+        } catch (IllegalStateException e) {
+            //expected
+        }
+        Map<String, Object> result = introspect("token", Collections.singletonMap("active", false)).block();
+
+        assertEquals(false, result.get("cached"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void flush() {
+        introspect("token", Collections.singletonMap("active", false)).block();
+        introspectionCache.invalidateAll();
+
+        assertEquals(0L, introspectionCache.size());
+        assertEquals(1L, introspectionCache.stats().get("misses"));
+    }
+
+    private Mono<Map<String, Object>> introspect(String token, Map<String, Object> result) {
+        return introspectionCache.get("http://localhost/introspect", token, "client_secret_basic", () -> {
+            calls.incrementAndGet();
+            return Mono.just(envelope(result));
+        });
+    }
+
+    private Map<String, Object> active(long exp) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("active", true);
+        result.put("exp", exp);
+        return result;
+    }
+
+    private Map<String, Object> envelope(Map<String, Object> result) {
+        return Collections.singletonMap("result", result);
+    }
+}
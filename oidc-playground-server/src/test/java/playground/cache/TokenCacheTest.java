@@ -0,0 +1,106 @@
+package playground.cache;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class TokenCacheTest {
+
+    private TokenCache tokenCache = new TokenCache(true, 100, 30);
+
+    private AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void cached() {
+        Map<String, Object> first = get("secret", asList("openid", "groups"), 3600).block();
+        Map<String, Object> second = get("secret", asList("groups", "openid"), 3600).block();
+
+        assertEquals(false, first.get("cached"));
+        assertEquals(true, second.get("cached"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void differentSecret() {
+        get("secret", asList("openid"), 3600).block();
+        Map<String, Object> result = get("other", asList("openid"), 3600).block();
+
+        assertEquals(false, result.get("cached"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void expiresWithinSkew() {
+        get("secret", asList("openid"), 20).block();
+        Map<String, Object> result = get("secret", asList("openid"), 20).block();
+
+        assertEquals(false, result.get("cached"));
+        assertEquals(2, calls.get());
+        assertEquals(0L, tokenCache.size());
+    }
+
+    @Test
+    public void singleFlight() {
+        MonoProcessor<Map<String, Object>> upstream = MonoProcessor.create();
+        Mono<Map<String, Object>> first = tokenCache.get("http://localhost/token", "client", "secret", null,
+                "client_secret_basic", () -> {
+                    calls.incrementAndGet();
+                    return upstream;
+                });
+        CompletableFuture<Map<String, Object>> firstResult = first.toFuture();
+        CompletableFuture<Map<String, Object>> secondResult = get("secret", null, 3600).toFuture();
+
+        upstream.onNext(response(3600));
+
+        assertEquals(false, firstResult.join().get("cached"));
+        assertEquals(true, secondResult.join().get("cached"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void blockingIssuerOutsideOfCache() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Map<String, Object>> first = CompletableFuture.supplyAsync(() ->
+                tokenCache.get("http://localhost/token", "client", "secret", null, "client_secret_basic",
+                        () -> Mono.fromCallable(() -> {
+                            calls.incrementAndGet();
+                            release.await();
+                            return response(3600);
+                        })).block());
+        while (calls.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        //the same key shares the running call, other keys are not held up by it
+        CompletableFuture<Map<String, Object>> second = get("secret", null, 3600).toFuture();
+        assertEquals(false, get("other", null, 3600).block(Duration.ofSeconds(1)).get("cached"));
+        release.countDown();
+
+        assertEquals(false, first.get(1, TimeUnit.SECONDS).get("cached"));
+        assertEquals(true, second.get(1, TimeUnit.SECONDS).get("cached"));
+        assertEquals(2, calls.get());
+    }
+
+    private Mono<Map<String, Object>> get(String secret, List<String> scopes, int expiresIn) {
+        return tokenCache.get("http://localhost/token", "client", secret, scopes, "client_secret_basic", () -> {
+            calls.incrementAndGet();
+            return Mono.just(response(expiresIn));
+        });
+    }
+
+    private Map<String, Object> response(int expiresIn) {
+        return Collections.singletonMap("result", Collections.singletonMap("expires_in", expiresIn));
+    }
+}
@@ -0,0 +1,67 @@
+package playground.cache;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class UserinfoCacheTest {
+
+    private UserinfoCache userinfoCache = new UserinfoCache(true, 100, 60);
+
+    private AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void cached() {
+        Map<String, Object> first = userinfo("token", "user", false).block();
+        Map<String, Object> second = userinfo("token", "user", false).block();
+
+        assertEquals(false, first.get("cached"));
+        assertEquals(true, second.get("cached"));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void bypass() {
+        userinfo("token", "user", false).block();
+        Map<String, Object> bypassed = userinfo("token", "other", true).block();
+        Map<String, Object> cached = userinfo("token", "user", false).block();
+
+        assertEquals(false, bypassed.get("cached"));
+        assertEquals(true, cached.get("cached"));
+        assertEquals("other", ((Map) cached.get("result")).get("sub"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void evictedByWeight() {
+        userinfo("first", String.join("", Collections.nCopies(60, "a")), false).block();
+        userinfo("second", String.join("", Collections.nCopies(60, "b")), false).block();
+
+        assertEquals(1L, userinfoCache.size());
+        assertEquals(1L, userinfoCache.stats().get("evictions"));
+    }
+
+    @Test
+    public void weigh() {
+        Map<String, Object> response = envelope("user");
+
+        assertEquals("{\"sub\":\"user\"}".length(), UserinfoCache.weigh(null, response));
+        assertEquals(1, UserinfoCache.weigh(null, Collections.emptyMap()));
+    }
+
+    private Mono<Map<String, Object>> userinfo(String token, String sub, boolean bypass) {
+        return userinfoCache.get("http://localhost/userinfo", token, bypass, () -> {
+            calls.incrementAndGet();
+            return Mono.just(envelope(sub));
+        });
+    }
+
+    private Map<String, Object> envelope(String sub) {
+        return Collections.singletonMap("result", Collections.singletonMap("sub", sub));
+    }
+}
@@ -0,0 +1,138 @@
+package playground.jwt;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.token.BearerAccessToken;
+import com.nimbusds.openid.connect.sdk.claims.AccessTokenHash;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.web.client.RestTemplate;
+import playground.cache.DiscoveryCache;
+import playground.provider.Provider;
+import playground.provider.ProviderRegistry;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class JwtVerifierTest {
+
+    private static final String ISSUER = "https://op.example.org";
+    private static final String OTHER_ISSUER = "https://other.example.org";
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    private RSAKey rsaKey;
+    private RSAKey otherRsaKey;
+
+    private JwtVerifier jwtVerifier;
+
+    @Before
+    public void before() throws JOSEException {
+        rsaKey = new RSAKeyGenerator(2048).keyID("key_1").generate();
+        otherRsaKey = new RSAKeyGenerator(2048).keyID("key_1").generate();
+        ProviderRegistry providerRegistry = new ProviderRegistry(Arrays.asList(
+                provider(ProviderRegistry.DEFAULT, ISSUER, "/certs", rsaKey),
+                provider("other", OTHER_ISSUER, "/other/certs", otherRsaKey)));
+        JwksCache jwksCache = new JwksCache(providerRegistry, new RestTemplate(), 3600, 30);
+        jwtVerifier = new JwtVerifier(jwksCache, providerRegistry, 60);
+    }
+
+    @Test
+    public void valid() throws JOSEException {
+        String accessToken = "access_token";
+        SignedJWT idToken = idToken("key_1", new JWTClaimsSet.Builder()
+                .claim("nonce", "nonce")
+                .claim("at_hash", AccessTokenHash.compute(JWSAlgorithm.RS256, new BearerAccessToken(accessToken)).getValue()));
+
+        Map<String, Object> result = jwtVerifier.verify(null, idToken, "playground_client", "nonce", accessToken, null);
+
+        assertEquals(true, result.get("valid"));
+        assertTrue(result.containsKey("duration_micros"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void invalidClaims() throws JOSEException {
+        SignedJWT idToken = idToken("key_1", new JWTClaimsSet.Builder()
+                .claim("nonce", "nonce")
+                .expirationTime(new Date(System.currentTimeMillis() - 3600 * 1000L)));
+
+        Map<String, Object> result = jwtVerifier.verify(null, idToken, "other_client", "other_nonce", "access_token", null);
+
+        assertEquals(false, result.get("valid"));
+        assertEquals(4, ((List<String>) result.get("errors")).size());
+    }
+
+    @Test
+    public void unknownKidIsFetchedOnceWithinRefreshInterval() throws JOSEException {
+        SignedJWT idToken = idToken("unknown", new JWTClaimsSet.Builder());
+
+        assertEquals(false, jwtVerifier.verify(null, idToken, "playground_client", null, null, null).get("valid"));
+        assertEquals(false, jwtVerifier.verify(null, idToken, "playground_client", null, null, null).get("valid"));
+
+        verify(1, getRequestedFor(urlPathEqualTo("/certs")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void otherProvider() throws JOSEException {
+        SignedJWT idToken = idToken("key_1", new JWTClaimsSet.Builder(), OTHER_ISSUER, otherRsaKey);
+
+        assertEquals(true, jwtVerifier.verify("other", idToken, "playground_client", null, null, null).get("valid"));
+
+        Map<String, Object> result = jwtVerifier.verify(null, idToken, "playground_client", null, null, null);
+        assertEquals(false, result.get("valid"));
+        assertEquals(Arrays.asList("Invalid signature",
+                String.format("Issuer %s does not match %s", OTHER_ISSUER, ISSUER)), result.get("errors"));
+    }
+
+    private Provider provider(String id, String issuer, String jwksPath, RSAKey key) {
+        stubFor(get(urlPathEqualTo(jwksPath))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new JWKSet(key.toPublicJWK()).toString())));
+        String discovery = "{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"http://localhost:8093" + jwksPath + "\"}";
+        DiscoveryCache discoveryCache = new DiscoveryCache(new ByteArrayResource(discovery.getBytes()),
+                new ObjectMapper(), 300, 30, 1000);
+        return new Provider(id, "playground_client", "secret", "resource-server", "secret", discoveryCache);
+    }
+
+    private SignedJWT idToken(String kid, JWTClaimsSet.Builder claims) throws JOSEException {
+        return idToken(kid, claims, ISSUER, rsaKey);
+    }
+
+    private SignedJWT idToken(String kid, JWTClaimsSet.Builder claims, String issuer, RSAKey key) throws JOSEException {
+        JWTClaimsSet claimsSet = claims
+                .issuer(issuer)
+                .audience("playground_client")
+                .expirationTime(claims.build().getExpirationTime() != null ?
+                        claims.build().getExpirationTime() : new Date(System.currentTimeMillis() + 3600 * 1000L))
+                .build();
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(kid).build(), claimsSet);
+        signedJWT.sign(new RSASSASigner(key));
+        return signedJWT;
+    }
+}
@@ -0,0 +1,59 @@
+package playground.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.Ed25519Verifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RequestObjectSignerTest {
+
+    private final JWTClaimsSet claimsSet = new JWTClaimsSet.Builder().subject("playground_client").build();
+
+    @Test
+    public void sign() throws Exception {
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "", 0);
+        RequestObjectSigner signer = new RequestObjectSigner(signingKeys);
+
+        SignedJWT rs256 = signer.sign(claimsSet, JWSAlgorithm.RS256).getSignedJWT();
+        assertTrue(rs256.verify(new RSASSAVerifier(((RSAKey) signingKeys.activeKey(JWSAlgorithm.RS256)).toPublicJWK())));
+
+        SignedJWT es256 = signer.sign(claimsSet, JWSAlgorithm.ES256).getSignedJWT();
+        assertTrue(es256.verify(new ECDSAVerifier(((ECKey) signingKeys.activeKey(JWSAlgorithm.ES256)).toPublicJWK())));
+
+        SignedJWT eddsa = signer.sign(claimsSet, JWSAlgorithm.EdDSA).getSignedJWT();
+        assertTrue(eddsa.verify(new Ed25519Verifier(((OctetKeyPair) signingKeys.activeKey(JWSAlgorithm.EdDSA)).toPublicJWK())));
+
+        assertEquals("JWT", eddsa.getHeader().getType().getType());
+        assertEquals(signingKeys.activeKey(JWSAlgorithm.EdDSA).getKeyID(), eddsa.getHeader().getKeyID());
+        assertEquals(3, signer.cachedSigners());
+    }
+
+    @Test
+    public void reuseHeaderUntilRotation() throws Exception {
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "", 0);
+        RequestObjectSigner signer = new RequestObjectSigner(signingKeys);
+
+        SignedJWT first = signer.sign(claimsSet, JWSAlgorithm.ES256).getSignedJWT();
+        SignedJWT second = signer.sign(claimsSet, JWSAlgorithm.ES256).getSignedJWT();
+        assertSame(first.getHeader(), second.getHeader());
+
+        signingKeys.rotate();
+
+        JWK active = signingKeys.activeKey(JWSAlgorithm.ES256);
+        SignedJWT rotated = signer.sign(claimsSet, JWSAlgorithm.ES256).getSignedJWT();
+        assertEquals(active.getKeyID(), rotated.getHeader().getKeyID());
+        assertEquals(1, signer.cachedSigners());
+    }
+}
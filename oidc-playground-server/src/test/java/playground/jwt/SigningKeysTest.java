@@ -0,0 +1,119 @@
+package playground.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.core.io.DefaultResourceLoader;
+import playground.web.CachedBody;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SigningKeysTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void generated() throws Exception {
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "", 0);
+
+        JWK active = signingKeys.activeKey(JWSAlgorithm.RS256);
+        List<JWK> publicKeys = signingKeys.publicKeys();
+
+        assertEquals(6, publicKeys.size());
+        assertEquals(active.getKeyID(), publicKeys.get(0).getKeyID());
+        assertNotEquals(active.getKeyID(), publicKeys.get(1).getKeyID());
+        publicKeys.forEach(jwk -> assertFalse(jwk.isPrivate()));
+        assertTrue(signingKeys.activeKey(JWSAlgorithm.ES256) instanceof ECKey);
+        assertTrue(signingKeys.activeKey(JWSAlgorithm.EdDSA) instanceof OctetKeyPair);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedAlgorithm() throws Exception {
+        new SigningKeys(new DefaultResourceLoader(), "", "", "", 0).activeKey(JWSAlgorithm.HS256);
+    }
+
+    @Test
+    public void rotateGenerated() throws Exception {
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "", 0);
+        String next = signingKeys.publicKeys().get(1).getKeyID();
+
+        signingKeys.rotate();
+
+        assertEquals(next, signingKeys.activeKey(JWSAlgorithm.RS256).getKeyID());
+        assertNotEquals(next, signingKeys.publicKeys().get(1).getKeyID());
+    }
+
+    @Test
+    public void publicKeySet() throws Exception {
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "", 0);
+        CachedBody publicKeySet = signingKeys.publicKeySet();
+
+        assertSame(publicKeySet, signingKeys.publicKeySet());
+        assertEquals(6, JWKSet.parse(new String(publicKeySet.getBody(), StandardCharsets.UTF_8)).getKeys().size());
+
+        signingKeys.rotate();
+
+        assertNotEquals(publicKeySet.getETag(), signingKeys.publicKeySet().getETag());
+        assertEquals(new JWKSet(signingKeys.publicKeys()).toJSONObject().toString(),
+                new String(signingKeys.publicKeySet().getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void loadedFromJwks() throws Exception {
+        File jwks = jwks("key_1", "key_2", "key_3");
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "file:" + jwks.getAbsolutePath(), 0);
+
+        assertEquals("key_1", signingKeys.activeKey(JWSAlgorithm.RS256).getKeyID());
+        assertEquals("key_2", signingKeys.publicKeys().get(1).getKeyID());
+
+        signingKeys.rotate();
+        signingKeys.rotate();
+
+        assertEquals("key_3", signingKeys.activeKey(JWSAlgorithm.RS256).getKeyID());
+        assertEquals("key_1", signingKeys.publicKeys().get(1).getKeyID());
+    }
+
+    @Test
+    public void singleLoadedKey() throws Exception {
+        File jwks = jwks("key_1");
+        SigningKeys signingKeys = new SigningKeys(new DefaultResourceLoader(), "", "", "file:" + jwks.getAbsolutePath(), 0);
+        signingKeys.rotate();
+
+        assertEquals("key_1", signingKeys.activeKey(JWSAlgorithm.RS256).getKeyID());
+        assertEquals(5, signingKeys.publicKeys().size());
+    }
+
+    private File jwks(String... keyIds) throws Exception {
+        JWKSet jwkSet = new JWKSet(Arrays.stream(keyIds).map(this::rsaKey).collect(Collectors.toList()));
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), jwkSet.toJSONObject(false).toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private JWK rsaKey(String keyId) {
+        try {
+            return new RSAKeyGenerator(2048).keyID(keyId).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
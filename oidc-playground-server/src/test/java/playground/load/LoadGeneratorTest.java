@@ -0,0 +1,84 @@
+package playground.load;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import playground.provider.ProviderException;
+import playground.AbstractIntegrationTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@TestPropertySource(properties = {
+        "oidc.providers.local.discovery_endpoint=classpath:/provider_discovery.json",
+        "oidc.providers.local.client_id=local_client",
+        "oidc.providers.local.secret=local_secret",
+        "oidc.providers.local.resource_server_id=local_resource_server",
+        "oidc.providers.local.resource_server_secret=local_resource_server_secret"
+})
+public class LoadGeneratorTest extends AbstractIntegrationTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void load() throws Exception {
+        stubFor(post(urlPathMatching("/token"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(readFile("oidc_response.json"))));
+        stubFor(post(urlPathMatching("/introspect"))
+                .willReturn(aResponse()
+                        .withStatus(500)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"error\":\"server_error\"}")));
+
+        loadGenerator.start(new LoadSettings(Arrays.asList("client_credentials", "introspect"), 50, 2, 1, "local"));
+        Map<String, Object> report = awaitReport();
+
+        assertEquals("finished", report.get("state"));
+        long requests = (long) report.get("requests");
+        assertTrue(requests > 10 && requests <= 50);
+
+        Map<String, Map<String, Object>> flows = (Map<String, Map<String, Object>>) report.get("per_flow");
+        assertTrue(((Map<String, Long>) flows.get("client_credentials").get("errors")).isEmpty());
+        Map<String, Long> introspectErrors = (Map<String, Long>) flows.get("introspect").get("errors");
+        assertEquals(flows.get("introspect").get("requests"), introspectErrors.get("status_500"));
+        assertTrue(((Map<String, Object>) report.get("latency_millis")).containsKey("p99"));
+    }
+
+    @Test(expected = ProviderException.class)
+    public void unknownProvider() {
+        loadGenerator.start(new LoadSettings(Collections.singletonList("introspect"), 0, 1, 1, "unknown"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsupportedFlow() {
+        new LoadSettings(Collections.singletonList("implicit"), 0, 1, 1, null);
+    }
+
+    private Map<String, Object> awaitReport() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            Map<String, Object> report = loadGenerator.report();
+            if (!"running".equals(report.get("state"))) {
+                return report;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Load test did not finish");
+    }
+}
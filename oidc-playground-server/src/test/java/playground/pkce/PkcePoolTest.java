@@ -0,0 +1,65 @@
+package playground.pkce;
+
+import com.nimbusds.oauth2.sdk.pkce.CodeChallenge;
+import com.nimbusds.oauth2.sdk.pkce.CodeChallengeMethod;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PkcePoolTest {
+
+    private PkcePool pkcePool = new PkcePool(10);
+
+    @After
+    public void after() {
+        pkcePool.shutdown();
+    }
+
+    @Test
+    public void fills() throws InterruptedException {
+        for (int i = 0; i < 100 && pkcePool.size() < 10; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(10, pkcePool.size());
+    }
+
+    @Test
+    public void s256() {
+        Pkce pkce = pkcePool.next(CodeChallengeMethod.S256);
+
+        assertEquals(43, pkce.getCodeVerifier().getValue().length());
+        assertEquals(CodeChallenge.compute(CodeChallengeMethod.S256, pkce.getCodeVerifier()), pkce.getCodeChallenge());
+    }
+
+    @Test
+    public void plain() {
+        Pkce pkce = pkcePool.next(CodeChallengeMethod.PLAIN);
+
+        assertEquals(pkce.getCodeVerifier().getValue(), pkce.getCodeChallenge().getValue());
+        assertEquals(CodeChallengeMethod.PLAIN, pkce.getCodeChallengeMethod());
+    }
+
+    @Test
+    public void withoutPool() {
+        PkcePool withoutPool = new PkcePool(0);
+
+        assertEquals(0, withoutPool.size());
+        assertEquals(43, withoutPool.next(CodeChallengeMethod.S256).getCodeVerifier().getValue().length());
+    }
+
+    @Test
+    public void unique() {
+        Set<String> verifiers = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 1000).parallel()
+                .forEach(i -> verifiers.add(pkcePool.next(CodeChallengeMethod.S256).getCodeVerifier().getValue()));
+
+        assertEquals(1000, verifiers.size());
+        assertTrue(PkcePool.randomValue().matches("[A-Za-z0-9_-]{43}"));
+    }
+}
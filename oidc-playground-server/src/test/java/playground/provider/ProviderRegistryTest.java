@@ -0,0 +1,70 @@
+package playground.provider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import playground.cache.DiscoveryCache;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ProviderRegistryTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private Provider defaultProvider = provider(ProviderRegistry.DEFAULT, new ClassPathResource("discovery_endpoint.json"));
+
+    @Test
+    public void defaultProvider() {
+        ProviderRegistry registry = new ProviderRegistry(Collections.singletonList(defaultProvider));
+
+        assertSame(defaultProvider, registry.get(null));
+        assertSame(defaultProvider, registry.get(""));
+        assertSame(defaultProvider, registry.get(ProviderRegistry.DEFAULT));
+    }
+
+    @Test(expected = ProviderException.class)
+    public void unknownProvider() {
+        new ProviderRegistry(Collections.singletonList(defaultProvider)).get("nope");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingDefault() {
+        new ProviderRegistry(Collections.singletonList(provider("test", new ClassPathResource("discovery_endpoint.json"))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateProvider() {
+        new ProviderRegistry(Arrays.asList(defaultProvider, defaultProvider));
+    }
+
+    @Test
+    public void endpoints() {
+        Provider test = provider("test", new ByteArrayResource(
+                "{\"token_endpoint\":\"http://localhost:8093/token\",\"userinfo_endpoint\":\"not an uri\"}".getBytes()));
+        ProviderRegistry registry = new ProviderRegistry(Arrays.asList(defaultProvider, test));
+
+        URI tokenEndpoint = registry.get("test").endpoint("token_endpoint");
+        assertEquals(URI.create("http://localhost:8093/token"), tokenEndpoint);
+        assertSame(tokenEndpoint, registry.get("test").endpoint("token_endpoint"));
+        assertEquals(URI.create("https://localhost:8080/oidc/introspect"),
+                registry.get(null).endpoint("introspect_endpoint"));
+    }
+
+    @Test(expected = ProviderException.class)
+    public void invalidEndpoint() {
+        provider("test", new ByteArrayResource("{\"userinfo_endpoint\":\"not an uri\"}".getBytes()))
+                .endpoint("userinfo_endpoint");
+    }
+
+    private Provider provider(String id, Resource discovery) {
+        return new Provider(id, "client", "secret", "resource-server", "secret",
+                new DiscoveryCache(discovery, objectMapper, 300, 30, 1000));
+    }
+}
@@ -0,0 +1,72 @@
+package playground.request;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedRequestModuleTest {
+
+    private ObjectMapper objectMapper = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new BoundedRequestModule(16, 3));
+
+    @Test
+    public void skipEmptyValues() throws IOException {
+        AuthorizationRequest request = read("{\"response_type\":\"code\",\"response_mode\":\"\",\"scope\":[\"openid\",\"\",null]," +
+                "\"claims\":[],\"nonce\":null,\"acr_values\":[],\"signedJWT\":true,\"unknown\":{\"nested\":[1,2]}}");
+
+        assertEquals("code", request.getResponseType());
+        assertEquals("fragment", request.getResponseMode());
+        assertEquals(asList("openid"), request.getScope());
+        assertNull(request.getClaims());
+        assertNull(request.getNonce());
+        assertNull(request.getAcrValues());
+        assertTrue(request.isSignedJWT());
+        assertEquals("RS256", request.getSignedJWTAlgorithm());
+    }
+
+    @Test
+    public void keepWhitespace() throws IOException {
+        TokenRequest request = objectMapper.readValue("{\"client_secret\":\" secret \",\"code\":\" \"}", TokenRequest.class);
+
+        assertEquals(" secret ", request.getClientSecret());
+        assertEquals(" ", request.getCode());
+    }
+
+    @Test
+    public void joinArrayForString() throws IOException {
+        AuthorizationRequest request = read("{\"acr_values\":[\"loa2\",\"loa3\"]}");
+
+        assertEquals("loa2 loa3", request.getAcrValues());
+    }
+
+    @Test
+    public void inheritedProperties() throws IOException {
+        TokenRequest request = objectMapper.readValue("{\"client_id\":\"\",\"token_endpoint_auth_method\":\"\"}", TokenRequest.class);
+
+        assertNull(request.getClientId());
+        assertEquals("client_secret_basic", request.getTokenEndpointAuthMethod());
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void fieldTooLong() throws IOException {
+        read("{\"nonce\":\"12345678901234567\"}");
+    }
+
+    @Test(expected = JsonMappingException.class)
+    public void listTooLarge() throws IOException {
+        read("{\"scope\":[\"a\",\"b\",\"c\",\"d\"]}");
+    }
+
+    private AuthorizationRequest read(String json) throws IOException {
+        return objectMapper.readValue(json, AuthorizationRequest.class);
+    }
+}
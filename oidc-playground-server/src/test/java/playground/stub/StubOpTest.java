@@ -0,0 +1,132 @@
+package playground.stub;
+
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.SignedJWT;
+import io.restassured.http.ContentType;
+import io.restassured.mapper.TypeRef;
+import org.junit.Test;
+import org.springframework.test.context.ActiveProfiles;
+import playground.AbstractIntegrationTest;
+import playground.api.FluentMap;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@ActiveProfiles("stub-op")
+public class StubOpTest extends AbstractIntegrationTest {
+
+    private TypeRef<Map<String, Object>> mapTypeRef = new TypeRef<Map<String, Object>>() {
+    };
+
+    @Test
+    public void discovery() {
+        given()
+                .get("/oidc/api/stub/.well-known/openid-configuration")
+                .then()
+                .statusCode(200)
+                .body("issuer", endsWith("/oidc/api/stub"))
+                .body("token_endpoint", endsWith("/oidc/api/stub/token"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void codeFlow() throws Exception {
+        String location = given()
+                .redirects().follow(false)
+                .queryParam("response_type", "code")
+                .queryParam("client_id", "playground_client")
+                .queryParam("redirect_uri", "http://localhost:3000/redirect")
+                .queryParam("state", "example")
+                .queryParam("nonce", "nonce")
+                .get("/oidc/api/stub/authorize")
+                .then()
+                .statusCode(302)
+                .header("Location", startsWith("http://localhost:3000/redirect?code="))
+                .header("Location", containsString("state=example"))
+                .extract().header("Location");
+        String code = location.substring(location.indexOf("code=") + 5, location.indexOf('&'));
+
+        Map<String, Object> token = given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("token_endpoint", stubUrl("token")).p("code", code))
+                .post("/oidc/api/token")
+                .as(mapTypeRef);
+        Map<String, Object> result = (Map<String, Object>) token.get("result");
+
+        SignedJWT idToken = SignedJWT.parse((String) result.get("id_token"));
+        assertEquals("nonce", idToken.getJWTClaimsSet().getStringClaim("nonce"));
+        assertEquals("playground_client", idToken.getJWTClaimsSet().getAudience().get(0));
+        JWKSet jwkSet = JWKSet.parse(given().get("/oidc/api/stub/certs").asString());
+        assertTrue(idToken.verify(new RSASSAVerifier((RSAKey) jwkSet.getKeys().get(0))));
+
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("introspect_endpoint", stubUrl("introspect")).p("token", result.get("access_token")))
+                .post("/oidc/api/introspect")
+                .then()
+                .statusCode(200)
+                .body("result.active", equalTo(true));
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("userinfo_endpoint", stubUrl("userinfo")).p("token", result.get("access_token")))
+                .post("/oidc/api/userinfo")
+                .then()
+                .statusCode(200)
+                .body("result.email", equalTo("john.doe@example.com"));
+    }
+
+    @Test
+    public void pushedAuthorizationRequest() {
+        String url = given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap()
+                        .p("authorization_endpoint", stubUrl("authorize"))
+                        .p("pushed_authorization_request_endpoint", stubUrl("par"))
+                        .p("response_type", "code")
+                        .p("state", "example")
+                        .p("pushed", true))
+                .post("/oidc/api/authorization_code")
+                .then()
+                .statusCode(200)
+                .extract().path("url");
+        assertTrue(url.contains("request_uri=urn%3Aietf%3Aparams%3Aoauth%3Arequest_uri%3A"));
+
+        given()
+                .redirects().follow(false)
+                .urlEncodingEnabled(false)
+                .get(url)
+                .then()
+                .statusCode(302)
+                .header("Location", startsWith("http://localhost:3000/redirect?code="))
+                .header("Location", containsString("state=example"));
+    }
+
+    @Test
+    public void clientCredentials() {
+        given()
+                .accept(ContentType.JSON)
+                .contentType(ContentType.JSON)
+                .body(new FluentMap().p("token_endpoint", stubUrl("token")))
+                .post("/oidc/api/client_credentials")
+                .then()
+                .statusCode(200)
+                .body("result.token_type", equalTo("Bearer"));
+    }
+
+    private String stubUrl(String endpoint) {
+        return "http://localhost:" + port + "/oidc/api/stub/" + endpoint;
+    }
+}
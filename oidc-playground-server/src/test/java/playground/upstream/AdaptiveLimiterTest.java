@@ -0,0 +1,90 @@
+package playground.upstream;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AdaptiveLimiterTest {
+
+    @Test
+    public void increaseOnSuccess() {
+        AdaptiveLimiter limiter = limiter(2, 1, 1000);
+        AdaptiveLimiter.Permit first = limiter.acquire().block();
+        AdaptiveLimiter.Permit second = limiter.acquire().block();
+        first.success();
+        second.success();
+
+        assertEquals(3, limiter.currentLimit());
+        assertEquals(0, limiter.snapshot().get("in_flight"));
+    }
+
+    @Test
+    public void decreaseOnDrop() {
+        AdaptiveLimiter limiter = limiter(10, 1, 1000);
+        limiter.acquire().block().dropped();
+
+        assertEquals(5, limiter.currentLimit());
+    }
+
+    @Test
+    public void releaseOnlyOnce() {
+        AdaptiveLimiter limiter = limiter(10, 1, 1000);
+        AdaptiveLimiter.Permit permit = limiter.acquire().block();
+        permit.ignore();
+        permit.success();
+
+        assertEquals(10, limiter.currentLimit());
+        assertEquals(0, limiter.snapshot().get("in_flight"));
+    }
+
+    @Test
+    public void queuedUntilReleased() {
+        AdaptiveLimiter limiter = limiter(1, 1, 1000);
+        AdaptiveLimiter.Permit permit = limiter.acquire().block();
+
+        AtomicReference<AdaptiveLimiter.Permit> queued = new AtomicReference<>();
+        limiter.acquire().subscribe(queued::set);
+        assertNull(queued.get());
+        assertEquals(1, limiter.snapshot().get("queued"));
+
+        permit.ignore();
+        Mono.delay(Duration.ofMillis(100)).block();
+        assertTrue(queued.get() != null);
+        assertEquals(1, limiter.snapshot().get("in_flight"));
+    }
+
+    @Test
+    public void rejectWhenQueueIsFull() {
+        AdaptiveLimiter limiter = limiter(1, 0, 1000);
+        limiter.acquire().block();
+        try {
+            limiter.acquire().block();
+            fail();
+        } catch (ConcurrencyLimitExceededException e) {
+            assertEquals(1L, limiter.snapshot().get("rejected"));
+        }
+    }
+
+    @Test
+    public void rejectAfterMaxWait() {
+        AdaptiveLimiter limiter = limiter(1, 1, 50);
+        limiter.acquire().block();
+        try {
+            limiter.acquire().block();
+            fail();
+        } catch (ConcurrencyLimitExceededException e) {
+            assertEquals(0, limiter.snapshot().get("queued"));
+        }
+    }
+
+    private AdaptiveLimiter limiter(int initialLimit, int maxQueueSize, long maxWaitMillis) {
+        return new AdaptiveLimiter("http://localhost/token", initialLimit, 1, 100, maxQueueSize, maxWaitMillis, 1000, 0.5);
+    }
+}
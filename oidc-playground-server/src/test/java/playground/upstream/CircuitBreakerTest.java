@@ -0,0 +1,175 @@
+package playground.upstream;
+
+import org.junit.Test;
+import org.springframework.http.RequestEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void openOnFailureRate() {
+        CircuitBreaker breaker = breaker(60000);
+        breaker.acquire().success();
+        breaker.acquire().failure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.acquire().failure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        try {
+            breaker.acquire();
+            fail();
+        } catch (CircuitOpenException e) {
+            assertEquals(60, e.getRetryAfterSeconds());
+        }
+        assertEquals(1L, breaker.snapshot().get("rejected"));
+    }
+
+    @Test
+    public void openOnSlowCalls() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("http://localhost", 4, 2, 0.5, 10, 1.0, 60000, 1);
+        CircuitBreaker.Permit first = breaker.acquire();
+        CircuitBreaker.Permit second = breaker.acquire();
+        Thread.sleep(20);
+        first.success();
+        second.success();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void ignoredCallsDoNotCount() {
+        CircuitBreaker breaker = breaker(60000);
+        for (int i = 0; i < 10; i++) {
+            CircuitBreaker.Permit permit = breaker.acquire();
+            permit.ignore();
+            permit.failure();
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.snapshot().get("calls"));
+    }
+
+    @Test
+    public void closeAfterProbes() throws InterruptedException {
+        CircuitBreaker breaker = open(breaker(10));
+        Thread.sleep(20);
+
+        CircuitBreaker.Permit first = breaker.acquire();
+        CircuitBreaker.Permit second = breaker.acquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        try {
+            breaker.acquire();
+            fail();
+        } catch (CircuitOpenException e) {
+            assertEquals(1, e.getRetryAfterSeconds());
+        }
+        first.success();
+        second.success();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.snapshot().get("calls"));
+    }
+
+    @Test
+    public void reopenOnFailedProbe() throws InterruptedException {
+        CircuitBreaker breaker = open(breaker(10));
+        Thread.sleep(20);
+
+        breaker.acquire().failure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    public void timeout() {
+        CircuitBreakingUpstreamClient client = new CircuitBreakingUpstreamClient(
+                (endpoint, requestEntity) -> Mono.never(), new CircuitBreakers(),
+                Collections.singletonMap("introspect", Duration.ofMillis(10)));
+        try {
+            client.exchange(UpstreamClient.INTROSPECT,
+                    RequestEntity.post(URI.create("http://localhost:8093/introspect")).body(form("token"))).block();
+            fail();
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void streamTimeoutEndsWithResponse() {
+        UpstreamClient slowClient = new UpstreamClient() {
+            @Override
+            public Mono<Map<String, Object>> exchange(String endpoint,
+                                                      RequestEntity<MultiValueMap<String, String>> requestEntity) {
+                return Mono.never();
+            }
+
+            @Override
+            public Mono<Void> stream(String endpoint, RequestEntity<MultiValueMap<String, String>> requestEntity,
+                                     OutputStream outputStream) {
+                return Mono.fromRunnable(() -> {
+                    try {
+                        outputStream.write('{');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }).then(Mono.delay(Duration.ofMillis(100))).then();
+            }
+        };
+        CircuitBreakingUpstreamClient client = new CircuitBreakingUpstreamClient(slowClient, new CircuitBreakers(),
+                Collections.singletonMap("introspect", Duration.ofMillis(10)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        client.stream(UpstreamClient.INTROSPECT, RequestEntity.post(URI.create("http://localhost:8093/introspect"))
+                .body(form("token")), outputStream).block();
+
+        assertEquals("{", outputStream.toString());
+    }
+
+    @Test
+    public void unknownEndpoint() {
+        CircuitBreakingUpstreamClient client = new CircuitBreakingUpstreamClient(
+                (endpoint, requestEntity) -> Mono.never(), new CircuitBreakers(),
+                Collections.singletonMap("introspect", Duration.ofMillis(10)));
+        try {
+            client.exchange("unknown", RequestEntity.post(URI.create("http://localhost:8093/introspect"))
+                    .body(form("token"))).block();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("No timeout for endpoint unknown", e.getMessage());
+        }
+    }
+
+    private CircuitBreaker breaker(long openMillis) {
+        return new CircuitBreaker("http://localhost", 4, 3, 0.5, 60000, 1.0, openMillis, 2);
+    }
+
+    private CircuitBreaker open(CircuitBreaker breaker) {
+        for (int i = 0; i < 3; i++) {
+            breaker.acquire().failure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    private MultiValueMap<String, String> form(String parameter) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        if (parameter != null) {
+            form.set(parameter, "value");
+        }
+        return form;
+    }
+}
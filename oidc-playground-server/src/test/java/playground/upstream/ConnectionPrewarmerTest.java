@@ -0,0 +1,40 @@
+package playground.upstream;
+
+import com.github.tomakehurst.wiremock.junit.WireMockRule;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConnectionPrewarmerTest {
+
+    @Rule
+    public WireMockRule wireMockRule = new WireMockRule(8093);
+
+    private PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+
+    @After
+    public void after() {
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void prewarm() {
+        ConnectionPrewarmer prewarmer = new ConnectionPrewarmer(connectionManager, null, 2, 1000, 30);
+        prewarmer.prewarm("http://localhost:8093/token");
+
+        assertEquals(2, connectionManager.getTotalStats().getAvailable());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+
+    @Test
+    public void prewarmUnreachableEndpoint() {
+        ConnectionPrewarmer prewarmer = new ConnectionPrewarmer(connectionManager, null, 2, 1000, 30);
+        prewarmer.prewarm("http://localhost:8094/token");
+
+        assertEquals(0, connectionManager.getTotalStats().getAvailable());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+    }
+}
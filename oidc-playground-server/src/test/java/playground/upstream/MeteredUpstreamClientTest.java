@@ -0,0 +1,71 @@
+package playground.upstream;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class MeteredUpstreamClientTest {
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void success() {
+        MeteredUpstreamClient client = new MeteredUpstreamClient((endpoint, requestEntity) -> Mono.just(Collections.emptyMap()),
+                meterRegistry);
+        client.exchange(UpstreamClient.TOKEN, requestEntity("authorization_code")).block();
+
+        assertEquals(1L, timer("authorization_code", "success").count());
+    }
+
+    @Test
+    public void clientError() {
+        MeteredUpstreamClient client = new MeteredUpstreamClient((endpoint, requestEntity) ->
+                Mono.error(new HttpClientErrorException(HttpStatus.BAD_REQUEST)), meterRegistry);
+        try {
+            client.exchange(UpstreamClient.TOKEN, requestEntity(null)).block();
+            fail();
+        } catch (HttpClientErrorException e) {
+            assertEquals(1L, timer("none", "client_error").count());
+        }
+    }
+
+    @Test
+    public void rejected() {
+        MeteredUpstreamClient client = new MeteredUpstreamClient((endpoint, requestEntity) ->
+                Mono.error(new ConcurrencyLimitExceededException("localhost", 1)), meterRegistry);
+        try {
+            client.exchange(UpstreamClient.TOKEN, requestEntity("client_credentials")).block();
+            fail();
+        } catch (ConcurrencyLimitExceededException e) {
+            assertEquals(1L, timer("client_credentials", "rejected").count());
+        }
+    }
+
+    private Timer timer(String grantType, String outcome) {
+        return meterRegistry.get(MeteredUpstreamClient.METRIC_NAME)
+                .tag("host", "localhost")
+                .tag("grant_type", grantType)
+                .tag("outcome", outcome)
+                .timer();
+    }
+
+    private RequestEntity<MultiValueMap<String, String>> requestEntity(String grantType) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        if (grantType != null) {
+            form.set("grant_type", grantType);
+        }
+        return RequestEntity.post(URI.create("http://localhost:8093/token")).body(form);
+    }
+}
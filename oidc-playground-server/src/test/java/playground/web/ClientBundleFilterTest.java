@@ -0,0 +1,117 @@
+package playground.web;
+
+import org.junit.Test;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import playground.AbstractIntegrationTest;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.isEmptyString;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+@ActiveProfiles("embedded-client")
+@TestPropertySource(properties = "oidc.client_bundle.location=classpath:/client_bundle/")
+public class ClientBundleFilterTest extends AbstractIntegrationTest {
+
+    @Test
+    public void index() {
+        given()
+                .get("/")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("text/html"))
+                .header("Cache-Control", equalTo("no-cache"))
+                .header("ETag", startsWith("\""))
+                .body(containsString("<div id=\"root\"></div>"));
+    }
+
+    @Test
+    public void clientRoute() {
+        given()
+                .get("/redirect")
+                .then()
+                .statusCode(200)
+                .body(containsString("<div id=\"root\"></div>"));
+    }
+
+    @Test
+    public void hashedAssetGzip() {
+        given()
+                .header("Accept-Encoding", "gzip, deflate, br")
+                .get("/static/js/main.1a2b3c4d.chunk.js")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .header("Cache-Control", equalTo("max-age=31536000, public, immutable"))
+                .header("Vary", "Accept-Encoding")
+                .body(startsWith("(window.webpackJsonp"));
+    }
+
+    @Test
+    public void hashedAssetIdentity() {
+        given()
+                .header("Accept-Encoding", "identity")
+                .get("/static/js/main.1a2b3c4d.chunk.js")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .header("Content-Length", "2480");
+    }
+
+    @Test
+    public void hashedAssetGzipQualityZero() {
+        given()
+                .header("Accept-Encoding", "gzip;q=0, br;q=0, deflate")
+                .get("/static/js/main.1a2b3c4d.chunk.js")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .header("Content-Length", "2480");
+    }
+
+    @Test
+    public void hashedAssetGzipQuality() {
+        given()
+                .header("Accept-Encoding", "identity, *;q=0.5")
+                .get("/static/js/main.1a2b3c4d.chunk.js")
+                .then()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip");
+    }
+
+    @Test
+    public void notModified() {
+        String eTag = given()
+                .get("/index.html")
+                .then()
+                .statusCode(200)
+                .extract().header("ETag");
+        given()
+                .header("If-None-Match", eTag)
+                .get("/index.html")
+                .then()
+                .statusCode(304)
+                .header("ETag", eTag)
+                .body(isEmptyString());
+    }
+
+    @Test
+    public void unknownFile() {
+        given()
+                .get("/static/js/unknown.js")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    public void api() {
+        given()
+                .get("/oidc/api/discovery")
+                .then()
+                .statusCode(200)
+                .body("issuer", startsWith("https://"));
+    }
+}
@@ -0,0 +1,48 @@
+package playground.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClientErrorReporterTest {
+
+    private ClientErrorReporter reporter = new ClientErrorReporter(new ObjectMapper(), 3, 2, 0);
+
+    @Test
+    public void groupsIdenticalErrors() {
+        reporter.report(error("TypeError", "1"));
+        reporter.report(error("TypeError", "2"));
+        reporter.report(error("ReferenceError", "3"));
+
+        Map<String, Integer> flushed = reporter.flush();
+
+        assertEquals(2, flushed.size());
+        assertEquals(Integer.valueOf(2), flushed.get(reporter.fingerprint(error("TypeError", "4"))));
+        assertEquals(Integer.valueOf(1), flushed.get(reporter.fingerprint(error("ReferenceError", "5"))));
+        assertTrue(reporter.flush().isEmpty());
+    }
+
+    @Test
+    public void dropsWhenFull() {
+        assertTrue(reporter.report(error("TypeError", "1")));
+        assertTrue(reporter.report(error("TypeError", "2")));
+        assertTrue(reporter.report(error("TypeError", "3")));
+        assertFalse(reporter.report(error("TypeError", "4")));
+
+        assertEquals(Integer.valueOf(3), reporter.flush().values().iterator().next());
+        assertTrue(reporter.report(error("TypeError", "5")));
+    }
+
+    private Map<String, Object> error(String message, String dateTime) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("message", message);
+        error.put("dateTime", dateTime);
+        return error;
+    }
+}
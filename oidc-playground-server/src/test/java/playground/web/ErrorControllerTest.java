@@ -5,12 +5,20 @@ import org.junit.Test;
 import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import playground.upstream.CircuitOpenException;
+import playground.upstream.ConcurrencyLimitExceededException;
+import reactor.core.Exceptions;
 
 import java.io.IOException;
+import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.Assert.assertEquals;
 
@@ -39,4 +47,57 @@ public class ErrorControllerTest {
                         objectMapper.writeValueAsBytes(Collections.singletonMap("key", "value")), Charset.defaultCharset()));
         assertEquals("value", errorController.error(request).getBody().get("key"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void errorInternalServerErrorNotJson() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("javax.servlet.error.exception",
+                HttpServerErrorException.create(HttpStatus.BAD_GATEWAY, "Bad Gateway", new HttpHeaders(),
+                        "<html>Bad Gateway</html>".getBytes(), Charset.defaultCharset()));
+        ResponseEntity<Map> response = errorController.error(request);
+
+        assertEquals(400, response.getStatusCodeValue());
+        assertEquals("502 Bad Gateway", response.getBody().get("details"));
+    }
+
+    @Test
+    public void errorConcurrencyLimitExceeded() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("javax.servlet.error.exception",
+                new ConcurrencyLimitExceededException("http://localhost/token", 10));
+        ResponseEntity<Map> response = errorController.error(request);
+
+        assertEquals(503, response.getStatusCodeValue());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(503, response.getBody().get("status"));
+    }
+
+    @Test
+    public void errorCircuitOpen() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("javax.servlet.error.exception", new CircuitOpenException("http://localhost", 2500));
+        ResponseEntity<Map> response = errorController.error(request);
+
+        assertEquals(503, response.getStatusCodeValue());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(503, response.getBody().get("status"));
+    }
+
+    @Test
+    public void errorTimeout() throws IOException {
+        assertGatewayTimeout(new TimeoutException("Did not observe any item within 10ms"));
+        //a timeout of a streaming call, blocked on in the StreamingResponseBody
+        assertGatewayTimeout(Exceptions.propagate(new TimeoutException("Did not observe any item within 10ms")));
+        assertGatewayTimeout(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")));
+    }
+
+    private void assertGatewayTimeout(Throwable error) throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute("javax.servlet.error.exception", error);
+        ResponseEntity<Map> response = errorController.error(request);
+
+        assertEquals(504, response.getStatusCodeValue());
+        assertEquals(504, response.getBody().get("status"));
+        assertEquals("Gateway Timeout", response.getBody().get("error"));
+    }
+}
@@ -0,0 +1,40 @@
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);
+(window.webpackJsonp=window.webpackJsonp||[]).push([[0],{}]);